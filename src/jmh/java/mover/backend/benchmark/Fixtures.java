@@ -0,0 +1,41 @@
+package mover.backend.benchmark;
+
+import mover.backend.model.Address;
+import mover.backend.model.Customer;
+import mover.backend.model.Lead;
+import mover.backend.model.enumeration.Status;
+import mover.backend.model.enumeration.Type;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entities shared by the benchmarks.
+ */
+final class Fixtures {
+
+    static final LocalDateTime START = LocalDateTime.of(2018, 1, 1, 8, 0);
+
+    private Fixtures() {
+    }
+
+    /**
+     * A valid lead, leads with different numbers start on different days.
+     */
+    static Lead lead(int number) {
+        return new Lead()
+                .setStart(START.plusDays(number))
+                .setEnd(START.plusDays(number).plusHours(6))
+                .setType(Type.LOCAL)
+                .setStatus(Status.PENDING)
+                .setOrigin(new Address("Origin " + number, 30.52, 50.45))
+                .setDestination(new Address("Destination " + number, 30.61, 50.40));
+    }
+
+    static Customer customer() {
+        return (Customer) new Customer()
+                .setFirstName("First name")
+                .setLastName("Last name")
+                .setEmail("first.last-name@mail.example.com")
+                .setPhone("+111-111-1111");
+    }
+}
@@ -0,0 +1,62 @@
+package mover.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import mover.backend.model.Customer;
+import mover.backend.model.Lead;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization and deserialization of request and response bodies, with the object mapper
+ * configured as by Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private Lead lead;
+
+    private Customer customer;
+
+    private byte[] leadJson;
+
+    private byte[] customerJson;
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        lead = Fixtures.lead(0);
+        customer = Fixtures.customer();
+        leadJson = objectMapper.writeValueAsBytes(lead);
+        customerJson = objectMapper.writeValueAsBytes(customer);
+    }
+
+    @Benchmark
+    public byte[] serializeLead() throws IOException {
+        return objectMapper.writeValueAsBytes(lead);
+    }
+
+    @Benchmark
+    public Lead deserializeLead() throws IOException {
+        return objectMapper.readValue(leadJson, Lead.class);
+    }
+
+    @Benchmark
+    public byte[] serializeCustomer() throws IOException {
+        return objectMapper.writeValueAsBytes(customer);
+    }
+
+    @Benchmark
+    public Customer deserializeCustomer() throws IOException {
+        return objectMapper.readValue(customerJson, Customer.class);
+    }
+}
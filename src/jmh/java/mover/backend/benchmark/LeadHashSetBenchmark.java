@@ -0,0 +1,59 @@
+package mover.backend.benchmark;
+
+import mover.backend.model.Lead;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lombok generated {@code equals} and {@code hashCode} of leads, which hash all their
+ * dates, enumerations and addresses, through hash set operations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LeadHashSetBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private List<Lead> leads;
+
+    private Set<Lead> set;
+
+    private List<Lead> copies;
+
+    @Setup
+    public void setup() {
+        leads = new ArrayList<>(size);
+        copies = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            leads.add(Fixtures.lead(i));
+            copies.add(Fixtures.lead(i));
+        }
+        set = new HashSet<>(leads);
+    }
+
+    @Benchmark
+    public Set<Lead> add() {
+        return new HashSet<>(leads);
+    }
+
+    /**
+     * Finds equal but not identical leads, so every hit also runs {@code equals}.
+     */
+    @Benchmark
+    public int contains() {
+        int found = 0;
+        for (Lead copy : copies) {
+            if (set.contains(copy)) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
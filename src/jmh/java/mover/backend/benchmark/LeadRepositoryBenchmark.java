@@ -0,0 +1,55 @@
+package mover.backend.benchmark;
+
+import mover.backend.BackendApplication;
+import mover.backend.model.Lead;
+import mover.backend.repository.LeadRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Saving and finding leads through the repository against the in-memory H2 database
+ * of the application, started without the web server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LeadRepositoryBenchmark {
+
+    private final AtomicInteger number = new AtomicInteger();
+
+    private ConfigurableApplicationContext context;
+
+    private LeadRepository leadRepository;
+
+    private Long savedId;
+
+    @Setup
+    public void setup() {
+        SpringApplication application = new SpringApplication(BackendApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        context = application.run("--logging.level.root=WARN");
+        leadRepository = context.getBean(LeadRepository.class);
+        savedId = leadRepository.save(Fixtures.lead(0)).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Lead save() {
+        return leadRepository.save(Fixtures.lead(number.incrementAndGet()));
+    }
+
+    @Benchmark
+    public Optional<Lead> findById() {
+        return leadRepository.findById(savedId);
+    }
+}
@@ -0,0 +1,110 @@
+package mover.backend.benchmark;
+
+import mover.backend.annotation.DateRange;
+import mover.backend.model.Customer;
+import mover.backend.model.Lead;
+import mover.backend.validator.DateRangeValidator;
+import mover.backend.validator.EmailValidator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.ReflectionUtils;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import java.lang.reflect.Field;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Bean Validation of leads and customers, and their date range and email constraints
+ * against the reflective and regular expression implementations they replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidationBenchmark {
+
+    private static final Pattern EMAIL_PATTERN =
+            Pattern.compile("[A-z0-9]+(\\-[A-z0-9]+|\\.[A-z0-9]+|\\_[A-z0-9]+)*@[A-z0-9]{2,}(\\.[A-z]{2,})+");
+
+    private ValidatorFactory validatorFactory;
+
+    private Validator validator;
+
+    private DateRangeValidator dateRangeValidator;
+
+    private Lead lead;
+
+    @Setup
+    public void setup() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        dateRangeValidator = new DateRangeValidator();
+        dateRangeValidator.initialize(Lead.class.getAnnotation(DateRange.class));
+        lead = Fixtures.lead(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Lead>> validateLead() {
+        return validator.validate(lead);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Customer>> validateCustomer(Emails emails) {
+        return validator.validate(emails.customer);
+    }
+
+    @Benchmark
+    public boolean dateRange() {
+        return dateRangeValidator.isValid(lead, null);
+    }
+
+    /**
+     * The date range check as it looked up and opened both fields on every call.
+     */
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public boolean dateRangeReflective() {
+        Field start = ReflectionUtils.findField(Lead.class, "start");
+        start.setAccessible(true);
+        Field end = ReflectionUtils.findField(Lead.class, "end");
+        end.setAccessible(true);
+        Comparable<Object> before = (Comparable<Object>) ReflectionUtils.getField(start, lead);
+        return before.compareTo(ReflectionUtils.getField(end, lead)) < 0;
+    }
+
+    @Benchmark
+    public boolean email(Emails emails) {
+        return EmailValidator.isEmail(emails.email);
+    }
+
+    @Benchmark
+    public boolean emailPattern(Emails emails) {
+        return EMAIL_PATTERN.matcher(emails.email).matches();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Emails {
+
+        /**
+         * A valid email and a near miss, on which the pattern backtracks exponentially in its length.
+         */
+        @Param({"first.last-name@mail.example.com", "a_a_a_a_a_a_a_a_a_a_a_a_a_a_a_a_!"})
+        private String email;
+
+        private Customer customer;
+
+        @Setup
+        public void setup() {
+            customer = Fixtures.customer();
+            customer.setEmail(email);
+        }
+    }
+}
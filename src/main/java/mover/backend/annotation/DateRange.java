@@ -5,12 +5,14 @@ import mover.backend.validator.DateRangeValidator;
 import javax.validation.Constraint;
 import javax.validation.Payload;
 import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 @Target(ElementType.TYPE)
 @Retention(RetentionPolicy.RUNTIME)
+@Repeatable(DateRange.List.class)
 @Constraint(validatedBy = DateRangeValidator.class)
 public @interface DateRange {
 
@@ -19,4 +21,14 @@ public @interface DateRange {
     String message() default "error.dateRange";
     Class<?>[] groups() default {};
     Class<? extends Payload>[] payload() default {};
-}
\ No newline at end of file
+
+    /**
+     * Several date ranges on the same type.
+     */
+    @Target(ElementType.TYPE)
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface List {
+
+        DateRange[] value();
+    }
+}
@@ -0,0 +1,24 @@
+package mover.backend.annotation;
+
+import mover.backend.validator.DerivableTypeValidator;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The type of a lead is required unless it can be derived from the coordinates
+ * of its origin and destination.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = DerivableTypeValidator.class)
+public @interface DerivableType {
+
+    String message() default "error.derivableType";
+    Class<?>[] groups() default {};
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,20 @@
+package mover.backend.annotation;
+
+import mover.backend.validator.EmailValidator;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target({ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = EmailValidator.class)
+public @interface Email {
+
+    String message() default "error.email";
+    Class<?>[] groups() default {};
+    Class<? extends Payload>[] payload() default {};
+}
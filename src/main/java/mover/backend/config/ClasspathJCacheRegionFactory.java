@@ -0,0 +1,33 @@
+package mover.backend.config;
+
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.jcache.JCacheRegionFactory;
+
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Properties;
+
+/**
+ * JCache region factory which resolves the {@code hibernate.javax.cache.uri} cache
+ * configuration as a classpath resource, so it can be packaged with the application.
+ * Configurations that are not on the classpath are resolved as URIs.
+ */
+public class ClasspathJCacheRegionFactory extends JCacheRegionFactory {
+
+    @Override
+    protected CacheManager getCacheManager(Properties properties) {
+        String config = getProp(properties, CONFIG_URI);
+        URL resource = config == null ? null : getClass().getClassLoader().getResource(config);
+        if (resource == null) {
+            return super.getCacheManager(properties);
+        }
+        CachingProvider cachingProvider = getCachingProvider(properties);
+        try {
+            return cachingProvider.getCacheManager(resource.toURI(), getClass().getClassLoader());
+        } catch (URISyntaxException e) {
+            throw new CacheException("Couldn't create URI from " + resource, e);
+        }
+    }
+}
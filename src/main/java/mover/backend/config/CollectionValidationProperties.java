@@ -0,0 +1,29 @@
+package mover.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * How collection request bodies are validated, bound from the {@code mover.validation.collection} properties.
+ */
+@Component
+@ConfigurationProperties(prefix = "mover.validation.collection")
+@Data
+public class CollectionValidationProperties {
+
+    /**
+     * Number of workers validating the elements of big collections.
+     */
+    private int threads = 4;
+
+    /**
+     * Smallest collection validated by the workers, smaller ones are validated by the request thread.
+     */
+    private int parallelThreshold = 1000;
+
+    /**
+     * Number of errors after which the remaining elements are not validated.
+     */
+    private int maxErrors = 100;
+}
@@ -0,0 +1,15 @@
+package mover.backend.config;
+
+/**
+ * Application constants.
+ */
+public final class Constants {
+
+    /**
+     * Maximal number of leads, or lead IDs, a single batch request may carry.
+     */
+    public static final int MAX_BATCH_SIZE = 10_000;
+
+    private Constants() {
+    }
+}
@@ -0,0 +1,46 @@
+package mover.backend.config;
+
+import lombok.Data;
+import mover.backend.service.pricing.Tariff;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tariffs leads are quoted by, bound from the {@code mover.pricing} properties.
+ */
+@Component
+@ConfigurationProperties(prefix = "mover.pricing")
+@Data
+public class PricingProperties {
+
+    /**
+     * Tariff used when none is requested.
+     */
+    private String defaultTariff = "standard";
+
+    private Map<String, Tariff> tariffs = new LinkedHashMap<>();
+
+    /**
+     * Number of parallel workers quoting upcoming leads.
+     */
+    private int requoteThreads = 4;
+
+    /**
+     * Number of leads every worker quotes with one statement.
+     */
+    private int requoteChunkSize = 500;
+
+    /**
+     * Maximal number of quotes cached per tariff.
+     */
+    private int quoteCacheSize = 10_000;
+
+    /**
+     * Time a cached quote is returned for, even if its lead did not change.
+     */
+    private Duration quoteCacheTtl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,12 @@
+package mover.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the periodic reconciliation of in-memory state with the database.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
@@ -0,0 +1,56 @@
+package mover.backend.config;
+
+import mover.backend.model.Customer;
+import mover.backend.model.Employee;
+import mover.backend.model.Estimate;
+import mover.backend.model.Inventory;
+import mover.backend.model.Lead;
+import mover.backend.validator.CollectionValidator;
+import mover.backend.validator.TimedConstraintValidatorFactory;
+import mover.backend.validator.ValidationMetrics;
+import mover.backend.validator.ValidationPipeline;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.validation.beanvalidation.SpringConstraintValidatorFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Wires the Bean Validation provider, with timed constraint validators, and the request body
+ * {@link ValidationPipeline} once for the application.
+ */
+@Configuration
+public class ValidationConfiguration {
+
+    @Bean
+    public ValidationMetrics validationMetrics() {
+        return new ValidationMetrics();
+    }
+
+    @Bean
+    public LocalValidatorFactoryBean validator(AutowireCapableBeanFactory beanFactory,
+                                               ValidationMetrics validationMetrics) {
+        LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
+        validator.setConstraintValidatorFactory(new TimedConstraintValidatorFactory(
+                new SpringConstraintValidatorFactory(beanFactory), validationMetrics));
+        return validator;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService collectionValidationExecutor(CollectionValidationProperties properties) {
+        return Executors.newFixedThreadPool(properties.getThreads());
+    }
+
+    @Bean
+    public ValidationPipeline validationPipeline(LocalValidatorFactoryBean validator,
+                                                 ExecutorService collectionValidationExecutor,
+                                                 CollectionValidationProperties properties) {
+        CollectionValidator collectionValidator = new CollectionValidator(validator, properties.getMaxErrors(),
+                properties.getParallelThreshold(), collectionValidationExecutor, properties.getThreads());
+        return new ValidationPipeline(validator, collectionValidator,
+                Lead.class, Customer.class, Employee.class, Estimate.class, Inventory.class);
+    }
+}
@@ -3,6 +3,8 @@ package mover.backend.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.Entity;
 import javax.persistence.ManyToMany;
@@ -15,6 +17,7 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "employee")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,6 +26,7 @@ import java.util.Set;
 @ToString(callSuper = true, exclude = "leads")
 public class Employee extends Person {
     @ManyToMany(mappedBy = "assignedTos")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JsonIgnore
     private Set<Lead> leads = new HashSet<>();
 }
@@ -11,6 +11,7 @@ import javax.persistence.Column;
 import javax.persistence.Embeddable;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
 /**
@@ -33,14 +34,17 @@ public class Inventory {
     private String name;
 
     @NotNull
+    @Min(1)
     @Column(name = "quantity", nullable = false)
     private int quantity;
 
     @NotNull
+    @Min(0)
     @Column(name = "weight", nullable = false)
     private int weight;
 
     @NotNull
+    @Min(0)
     @Column(name = "volume", nullable = false)
     private int volume;
 }
@@ -0,0 +1,52 @@
+package mover.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+import mover.backend.model.enumeration.Category;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A InventoryTotal represents the running totals of the inventories of single Category in single Lead.
+ * Weight and volume are summed per item, multiplied by the inventory quantity.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+public class InventoryTotal {
+    @Column(name = "items", nullable = false)
+    private long items;
+
+    @Column(name = "weight", nullable = false)
+    private long weight;
+
+    @Column(name = "volume", nullable = false)
+    private long volume;
+
+    /**
+     * Adds the inventory to the totals, or subtracts it if {@code sign} is negative.
+     */
+    public InventoryTotal add(Inventory inventory, int sign) {
+        long quantity = (long) Integer.signum(sign) * inventory.getQuantity();
+        items += quantity;
+        weight += quantity * inventory.getWeight();
+        volume += quantity * inventory.getVolume();
+        return this;
+    }
+
+    /**
+     * Copies the totals, which initializes them if lazy, ordered by category.
+     */
+    public static Map<Category, InventoryTotal> copyOf(Map<Category, InventoryTotal> totals) {
+        Map<Category, InventoryTotal> copy = new EnumMap<>(Category.class);
+        copy.putAll(totals);
+        return copy;
+    }
+}
@@ -1,35 +1,54 @@
 package mover.backend.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
 import lombok.experimental.Accessors;
 import mover.backend.annotation.DateRange;
+import mover.backend.annotation.DerivableType;
+import mover.backend.model.enumeration.Category;
 import mover.backend.model.enumeration.Status;
 import mover.backend.model.enumeration.Type;
+import org.hibernate.annotations.ColumnDefault;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * A lead represents a route from origin to destination in a specific time.
  */
 @Entity
-@Table(name = "lead")
+@Table(name = "lead", indexes = {
+        @Index(name = "idx_lead_start_id", columnList = "start, id"),
+        @Index(name = "idx_lead_start_end", columnList = "start, end"),
+        @Index(name = "idx_lead_status_start", columnList = "status, start"),
+        @Index(name = "idx_lead_type_start", columnList = "type, start"),
+        @Index(name = "idx_lead_distance_km", columnList = "distance_km, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Accessors(chain = true)
-@ToString(exclude = {"estimates","inventories", "customer", "assignedTos"})
-@EqualsAndHashCode(exclude = {"id", "estimates","inventories", "customer", "assignedTos"})
+@ToString(exclude = {"estimates","inventories", "inventoryTotals", "customer", "assignedTos"})
+@EqualsAndHashCode(exclude = {"id", "version", "estimates","inventories", "inventoryTotals", "customer", "assignedTos"})
 @DateRange(before = "start", after = "end")
+@DerivableType
 public class Lead {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lead_seq")
+    @SequenceGenerator(name = "lead_seq", sequenceName = "lead_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @NotNull
     @Column(name = "start", nullable = false)
     private LocalDateTime start;
@@ -38,11 +57,20 @@ public class Lead {
     @Column(name = "end", nullable = false)
     private LocalDateTime end;
 
-    @NotNull
+    /**
+     * Derived from the distance if not set when the lead is written, so required only without coordinates.
+     */
     @Enumerated(EnumType.STRING)
     @Column(name = "type", nullable = false)
     private Type type;
 
+    /**
+     * Great-circle distance from the origin to the destination, computed when the lead is written.
+     */
+    @Column(name = "distance_km")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Double distanceKm;
+
     @NotNull
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
@@ -74,6 +102,17 @@ public class Lead {
     @JsonIgnore
     private Set<Inventory> inventories = new HashSet<>();
 
+    /**
+     * Running totals of the inventories per category, kept in step with the inventories
+     * so they can be read without loading the whole inventory collection.
+     */
+    @ElementCollection
+    @CollectionTable(name = "lead_inventory_totals")
+    @MapKeyEnumerated(EnumType.STRING)
+    @MapKeyColumn(name = "category")
+    @JsonIgnore
+    private Map<Category, InventoryTotal> inventoryTotals = new EnumMap<>(Category.class);
+
     @ManyToOne
     @JsonIgnore
     private Customer customer;
@@ -86,4 +125,23 @@ public class Lead {
     )
     @JsonIgnore
     private Set<Employee> assignedTos = new HashSet<>();
+
+    /**
+     * Adds the inventory to the totals of its category, or subtracts it if {@code sign} is negative.
+     */
+    public void countInventory(Inventory inventory, int sign) {
+        InventoryTotal total = inventoryTotals.computeIfAbsent(inventory.getCategory(), category -> new InventoryTotal());
+        if (total.add(inventory, sign).getItems() == 0) {
+            inventoryTotals.remove(inventory.getCategory());
+        }
+    }
+
+    /**
+     * Recomputes the totals of all categories from the inventories.
+     */
+    @PrePersist
+    public void countInventories() {
+        inventoryTotals.clear();
+        inventories.forEach(inventory -> countInventory(inventory, 1));
+    }
 }
@@ -5,10 +5,11 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.experimental.Accessors;
+import mover.backend.annotation.Email;
+import org.hibernate.annotations.ColumnDefault;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
-import javax.validation.constraints.Pattern;
 
 /**
  * A Person represents basic information about Customer or Employee.
@@ -18,16 +19,18 @@ import javax.validation.constraints.Pattern;
 @NoArgsConstructor
 @AllArgsConstructor
 @Accessors(chain = true)
-@EqualsAndHashCode(exclude = "id")
+@EqualsAndHashCode(exclude = {"id", "version"})
 public class Person {
 
-    private static final String EMAIL_PATTERN =
-            "[A-z0-9]+(\\-[A-z0-9]+|\\.[A-z0-9]+|\\_[A-z0-9]+)*@[A-z0-9]{2,}(\\.[A-z]{2,})+";
-
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @NotNull
     @Column(name = "firstname", nullable = false)
     private String firstName;
@@ -37,7 +40,7 @@ public class Person {
     private String lastName;
 
     @NotNull
-    @Pattern(regexp = EMAIL_PATTERN)
+    @Email
     @Column(name = "email")
     private String email;
 
@@ -1,12 +1,51 @@
 package mover.backend.repository;
 
 import mover.backend.model.Customer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 /**
  * Spring Data JPA repository for the Customer entity.
  */
 @Repository
-public interface CustomerRepository extends CrudRepository<Customer, Long> {
-}
\ No newline at end of file
+public interface CustomerRepository extends CrudRepository<Customer, Long>, CustomerRepositoryCustom {
+
+    List<Customer> findByIdGreaterThanOrderById(Long afterId, Pageable pageable);
+
+    /**
+     * Streams the ID, first name, last name, email and phone of all customers.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = LeadRepository.STREAM_FETCH_SIZE))
+    @Query("select c.id, c.firstName, c.lastName, c.email, c.phone from Customer c")
+    Stream<Object[]> streamSearchFields();
+
+    /**
+     * Version of a customer, without loading the customer.
+     */
+    @Query("select c.version from Customer c where c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Deletes the customer in a single statement, its leads must be unlinked first.
+     *
+     * @return the number of deleted customers
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("delete from Customer c where c.id = :id")
+    int deleteUnlinkedById(@Param("id") Long id);
+}
@@ -0,0 +1,54 @@
+package mover.backend.repository;
+
+import mover.backend.model.Customer;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Writes of the Customer repository which evict only the second-level cache entries they change.
+ */
+public interface CustomerRepositoryCustom {
+
+    /**
+     * Updates the customer if it still has the version, or any version if null.
+     * The customer is read through the second-level cache and written by a single versioned UPDATE,
+     * which evicts only its own cache entry.
+     *
+     * @param customer the customer with the new fields
+     * @param version  the version the customer must have, or null for any
+     * @return the version of the updated customer, empty if there is no such customer
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the customer has another version
+     */
+    Optional<Long> updateIfVersion(Customer customer, Long version);
+
+    /**
+     * Links the leads to the customer with a single foreign-key write, without loading the customer,
+     * the leads or their collections. Leads which already belong to the customer are kept as they are.
+     * Only the cached leads of the customer and of the previous customers of the leads are evicted.
+     *
+     * @param id      the ID of the customer
+     * @param leadIds the IDs of the leads to link, unknown IDs are ignored
+     * @return the number of linked leads, 0 if there is no such customer
+     */
+    int linkLeadsById(Long id, Collection<Long> leadIds);
+
+    /**
+     * Unlinks the lead from the customer with a single foreign-key write.
+     * Only the cached leads of the customer are evicted.
+     *
+     * @param id     the ID of the customer
+     * @param leadId the ID of the lead to unlink
+     * @return the number of unlinked leads, 0 if the lead does not belong to the customer
+     */
+    int unlinkLeadById(Long id, Long leadId);
+
+    /**
+     * Unlinks the leads of the customer without loading them, incrementing their versions.
+     * Only the cached leads of the customer are evicted.
+     *
+     * @param id the ID of the customer
+     * @return the number of unlinked leads
+     */
+    int unlinkLeadsById(Long id);
+}
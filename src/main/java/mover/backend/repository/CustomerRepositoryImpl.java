@@ -0,0 +1,87 @@
+package mover.backend.repository;
+
+import mover.backend.model.Customer;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementation of the writes of the Customer repository.
+ * <p>
+ * Lead links are written with native statements, see {@link LeadWrites}.
+ */
+@Transactional
+public class CustomerRepositoryImpl implements CustomerRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Long> updateIfVersion(Customer customer, Long version) {
+        Customer managed = entityManager.find(Customer.class, customer.getId());
+        if (managed == null) {
+            return Optional.empty();
+        }
+        if (version != null && !version.equals(managed.getVersion())) {
+            throw new OptimisticLockingFailureException("Customer " + customer.getId() + " does not have version " + version);
+        }
+        managed.setFirstName(customer.getFirstName())
+                .setLastName(customer.getLastName())
+                .setEmail(customer.getEmail())
+                .setPhone(customer.getPhone());
+        entityManager.flush();
+        return Optional.of(managed.getVersion());
+    }
+
+    @Override
+    public int linkLeadsById(Long id, Collection<Long> leadIds) {
+        if (leadIds.isEmpty()) {
+            return 0;
+        }
+        List<Long> owners = new ArrayList<>(entityManager.createQuery("select distinct l.customer.id from Lead l"
+                + " where l.id in :leadIds and l.customer.id <> :id", Long.class)
+                .setParameter("id", id)
+                .setParameter("leadIds", leadIds)
+                .getResultList());
+        owners.add(id);
+        LeadWrites.lockCollections(entityManager, LeadWrites.CUSTOMER_LEADS, owners);
+        int linked = LeadWrites.create(entityManager, "update lead set customer_id = :id, version = version + 1"
+                + " where id in (:leadIds) and (customer_id is null or customer_id <> :id)"
+                + " and exists (select 1 from customer c where c.id = :id)")
+                .setParameter("id", id)
+                .setParameter("leadIds", leadIds)
+                .executeUpdate();
+        entityManager.clear();
+        return linked;
+    }
+
+    @Override
+    public int unlinkLeadById(Long id, Long leadId) {
+        LeadWrites.lockCollections(entityManager, LeadWrites.CUSTOMER_LEADS, Collections.singleton(id));
+        int unlinked = LeadWrites.create(entityManager, "update lead set customer_id = null, version = version + 1"
+                + " where id = :leadId and customer_id = :id")
+                .setParameter("id", id)
+                .setParameter("leadId", leadId)
+                .executeUpdate();
+        entityManager.clear();
+        return unlinked;
+    }
+
+    @Override
+    public int unlinkLeadsById(Long id) {
+        LeadWrites.lockCollections(entityManager, LeadWrites.CUSTOMER_LEADS, Collections.singleton(id));
+        int unlinked = LeadWrites.create(entityManager, "update lead set customer_id = null, version = version + 1"
+                + " where customer_id = :id")
+                .setParameter("id", id)
+                .executeUpdate();
+        entityManager.clear();
+        return unlinked;
+    }
+}
@@ -1,12 +1,42 @@
 package mover.backend.repository;
 
 import mover.backend.model.Employee;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 /**
  * Spring Data JPA repository for the Employee entity.
  */
 @Repository
-public interface EmployeeRepository extends CrudRepository<Employee, Long> {
+public interface EmployeeRepository extends CrudRepository<Employee, Long>, EmployeeRepositoryCustom {
+
+    List<Employee> findByIdGreaterThanOrderById(Long afterId, Pageable pageable);
+
+    @Query("select e.id from Employee e")
+    List<Long> findAllIds();
+
+    /**
+     * Streams the ID, first name, last name, email and phone of all employees.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = LeadRepository.STREAM_FETCH_SIZE))
+    @Query("select e.id, e.firstName, e.lastName, e.email, e.phone from Employee e")
+    Stream<Object[]> streamSearchFields();
+
+    /**
+     * Version of an employee, without loading the employee.
+     */
+    @Query("select e.version from Employee e where e.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,53 @@
+package mover.backend.repository;
+
+import mover.backend.model.Employee;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Set-based operations of the Employee repository, which the derived and JPQL queries cannot express.
+ */
+public interface EmployeeRepositoryCustom {
+
+    /**
+     * Updates the employee if it still has the version, or any version if null.
+     * The employee is read through the second-level cache and written by a single versioned UPDATE,
+     * which evicts only its own cache entry.
+     *
+     * @param employee the employee with the new fields
+     * @param version  the version the employee must have, or null for any
+     * @return the version of the updated employee, empty if there is no such employee
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the employee has another version
+     */
+    Optional<Long> updateIfVersion(Employee employee, Long version);
+
+    /**
+     * Deletes the employee with its lead assignments, without loading the assigned leads.
+     * The versions of the assigned leads are incremented.
+     *
+     * @param id the ID of the employee to delete
+     * @return the number of deleted employees
+     */
+    int deleteWithAssignmentsById(Long id);
+
+    /**
+     * Assigns the leads to the employee with a single join-table insert, without loading the employee,
+     * the leads or their collections. The versions of the newly assigned leads are incremented.
+     *
+     * @param id      the ID of the employee
+     * @param leadIds the IDs of the leads to assign, unknown IDs and assigned leads are ignored
+     * @return the number of newly assigned leads, 0 if there is no such employee
+     */
+    int assignLeadsById(Long id, Collection<Long> leadIds);
+
+    /**
+     * Unassigns the lead from the employee with a single join-table delete.
+     * The version of the lead is incremented if it was assigned.
+     *
+     * @param id     the ID of the employee
+     * @param leadId the ID of the lead to unassign
+     * @return the number of unassigned leads
+     */
+    int unassignLeadById(Long id, Long leadId);
+}
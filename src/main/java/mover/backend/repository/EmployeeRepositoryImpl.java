@@ -0,0 +1,98 @@
+package mover.backend.repository;
+
+import mover.backend.model.Employee;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+
+/**
+ * Implementation of the set-based operations of the Employee repository.
+ * <p>
+ * Lead assignments are written with native statements, see {@link LeadWrites}.
+ */
+@Transactional
+public class EmployeeRepositoryImpl implements EmployeeRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Long> updateIfVersion(Employee employee, Long version) {
+        Employee managed = entityManager.find(Employee.class, employee.getId());
+        if (managed == null) {
+            return Optional.empty();
+        }
+        if (version != null && !version.equals(managed.getVersion())) {
+            throw new OptimisticLockingFailureException("Employee " + employee.getId() + " does not have version " + version);
+        }
+        managed.setFirstName(employee.getFirstName())
+                .setLastName(employee.getLastName())
+                .setEmail(employee.getEmail())
+                .setPhone(employee.getPhone());
+        entityManager.flush();
+        return Optional.of(managed.getVersion());
+    }
+
+    @Override
+    public int deleteWithAssignmentsById(Long id) {
+        LeadWrites.lockCollections(entityManager, LeadWrites.EMPLOYEE_LEADS, Collections.singleton(id));
+        // The join columns of Lead.assignedTos are swapped, lead_id holds the employee ID
+        LeadWrites.create(entityManager, "update lead set version = version + 1"
+                + " where id in (select employee_id from lead_employee where lead_id = :id)")
+                .setParameter("id", id)
+                .executeUpdate();
+        LeadWrites.create(entityManager, "delete from lead_employee where lead_id = :id")
+                .setParameter("id", id)
+                .executeUpdate();
+        int deleted = entityManager.createQuery("delete from Employee e where e.id = :id")
+                .setParameter("id", id)
+                .executeUpdate();
+        entityManager.clear();
+        return deleted;
+    }
+
+    @Override
+    public int assignLeadsById(Long id, Collection<Long> leadIds) {
+        if (leadIds.isEmpty()) {
+            return 0;
+        }
+        LeadWrites.lockCollections(entityManager, LeadWrites.EMPLOYEE_LEADS, Collections.singleton(id));
+        // The join columns of Lead.assignedTos are swapped, employee_id holds the lead ID
+        LeadWrites.create(entityManager, "update lead set version = version + 1"
+                + " where id in (:leadIds) and exists (select 1 from employee e where e.id = :id)"
+                + " and id not in (select employee_id from lead_employee where lead_id = :id)")
+                .setParameter("id", id)
+                .setParameter("leadIds", leadIds)
+                .executeUpdate();
+        int assigned = LeadWrites.create(entityManager, "insert into lead_employee (employee_id, lead_id)"
+                + " select l.id, e.id from lead l join employee e on e.id = :id where l.id in (:leadIds)"
+                + " and not exists (select 1 from lead_employee a where a.employee_id = l.id and a.lead_id = e.id)")
+                .setParameter("id", id)
+                .setParameter("leadIds", leadIds)
+                .executeUpdate();
+        entityManager.clear();
+        return assigned;
+    }
+
+    @Override
+    public int unassignLeadById(Long id, Long leadId) {
+        LeadWrites.lockCollections(entityManager, LeadWrites.EMPLOYEE_LEADS, Collections.singleton(id));
+        // The join columns of Lead.assignedTos are swapped, employee_id holds the lead ID
+        int unassigned = LeadWrites.create(entityManager, "delete from lead_employee where employee_id = :leadId and lead_id = :id")
+                .setParameter("id", id)
+                .setParameter("leadId", leadId)
+                .executeUpdate();
+        if (unassigned > 0) {
+            LeadWrites.create(entityManager, "update lead set version = version + 1 where id = :leadId")
+                    .setParameter("leadId", leadId)
+                    .executeUpdate();
+        }
+        entityManager.clear();
+        return unassigned;
+    }
+}
@@ -1,12 +1,161 @@
 package mover.backend.repository;
 
+import mover.backend.model.Customer;
+import mover.backend.model.Employee;
+import mover.backend.model.Estimate;
+import mover.backend.model.Inventory;
 import mover.backend.model.Lead;
+import mover.backend.model.enumeration.Status;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 /**
  * Spring Data JPA repository for the Lead entity.
  */
 @Repository
-public interface LeadRepository extends CrudRepository<Lead,Long> {
+public interface LeadRepository extends CrudRepository<Lead,Long>, LeadRepositoryCustom {
+
+    /**
+     * Number of rows the JDBC driver fetches per round trip when streaming leads.
+     */
+    String STREAM_FETCH_SIZE = "500";
+
+    /**
+     * Keyset page of the IDs of the leads with the status which ended before the time.
+     */
+    @Query("select l.id from Lead l where l.id > :afterId and l.status = :status and l.end < :before order by l.id")
+    List<Long> findIdsByStatusAndEndBefore(@Param("afterId") Long afterId,
+                                           @Param("status") Status status,
+                                           @Param("before") LocalDateTime before,
+                                           Pageable pageable);
+
+    /**
+     * Keyset page of the IDs of the leads starting at or after the time.
+     */
+    @Query("select l.id from Lead l where l.id > :afterId and l.start >= :from order by l.id")
+    List<Long> findIdsByStartFrom(@Param("afterId") Long afterId,
+                                  @Param("from") LocalDateTime from,
+                                  Pageable pageable);
+
+    /**
+     * ID, version, distance, sum of quantity times price of the estimates, and total inventory weight
+     * and volume of the leads, aggregated by the database without loading the collections.
+     */
+    @Query("select l.id, l.version, l.distanceKm,"
+            + " (select coalesce(sum(cast(e.quantity as long) * e.price), 0) from Lead el join el.estimates e where el.id = l.id),"
+            + " (select coalesce(sum(t.weight), 0) from Lead tl join tl.inventoryTotals t where tl.id = l.id),"
+            + " (select coalesce(sum(t.volume), 0) from Lead tl join tl.inventoryTotals t where tl.id = l.id)"
+            + " from Lead l where l.id in :ids")
+    List<Object[]> findQuoteTotalsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Keyset page of the IDs of the leads without a distance, which have the coordinates to compute one.
+     */
+    @Query("select l.id from Lead l where l.id > :afterId and l.distanceKm is null"
+            + " and l.origin.latitude is not null and l.origin.longitude is not null"
+            + " and l.destination.latitude is not null and l.destination.longitude is not null"
+            + " order by l.id")
+    List<Long> findIdsWithoutDistance(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * ID, status, type, start and end of the leads overlapping {@code [from, to)}, ordered by start.
+     * Leads which end when the window starts, or start when it ends, do not overlap it.
+     */
+    @Query("select l.id, l.status, l.type, l.start, l.end from Lead l"
+            + " where l.start < :to and l.end > :from order by l.start, l.id")
+    List<Object[]> findCalendarByOverlap(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Streams all leads ordered by id, with their customers, through a read-only scrollable cursor.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select l from Lead l left join fetch l.customer order by l.id")
+    Stream<Lead> streamAllOrderById();
+
+    /**
+     * Streams the ID, origin latitude and longitude, destination latitude and longitude of all leads.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("select l.id, l.origin.latitude, l.origin.longitude,"
+            + " l.destination.latitude, l.destination.longitude from Lead l")
+    Stream<Object[]> streamCoordinates();
+
+    /**
+     * Streams the ID, status and type of all leads.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("select l.id, l.status, l.type from Lead l")
+    Stream<Object[]> streamStatusesAndTypes();
+
+    /**
+     * Streams the employee ID, lead ID, start and end of all assignments of employees to leads.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("select e.id, l.id, l.start, l.end from Lead l join l.assignedTos e")
+    Stream<Object[]> streamAssignments();
+
+    /**
+     * ID, start and end of the leads.
+     */
+    @Query("select l.id, l.start, l.end from Lead l where l.id in :ids")
+    List<Object[]> findWindowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Estimates of the lead. Empty if there is no such lead,
+     * a single null element if the lead has no estimates.
+     */
+    @Query("select e from Lead l left join l.estimates e where l.id = :id")
+    List<Estimate> findEstimatesByLeadId(@Param("id") Long id);
+
+    /**
+     * Inventories of the lead. Empty if there is no such lead,
+     * a single null element if the lead has no inventories.
+     */
+    @Query("select i from Lead l left join l.inventories i where l.id = :id")
+    List<Inventory> findInventoriesByLeadId(@Param("id") Long id);
+
+    /**
+     * Employees assigned to the lead. Empty if there is no such lead,
+     * a single null element if the lead has no employees.
+     */
+    @Query("select e from Lead l left join l.assignedTos e where l.id = :id")
+    List<Employee> findEmployeesByLeadId(@Param("id") Long id);
+
+    @Query("select c from Lead l join l.customer c where l.id = :id")
+    Optional<Customer> findCustomerByLeadId(@Param("id") Long id);
+
+    /**
+     * Version of a lead, without loading the lead.
+     */
+    @Query("select l.version from Lead l where l.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Version of the customer of a lead, without loading the customer.
+     */
+    @Query("select c.version from Lead l join l.customer c where l.id = :id")
+    Optional<Long> findCustomerVersionByLeadId(@Param("id") Long id);
 }
@@ -0,0 +1,50 @@
+package mover.backend.repository;
+
+import mover.backend.model.Lead;
+import mover.backend.model.enumeration.Status;
+import mover.backend.model.enumeration.Type;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based operations and filtered queries of the Lead repository, which the derived and JPQL queries cannot express.
+ */
+public interface LeadRepositoryCustom {
+
+    /**
+     * Keyset page of leads ordered by id. Null filters are left out of the query.
+     */
+    List<Lead> findPageOrderById(Long afterId, Status status, Type type, LocalDateTime from, LocalDateTime to,
+                                 Double minDistanceKm, Double maxDistanceKm, Pageable pageable);
+
+    /**
+     * Keyset page of leads ordered by start, with id as a tie breaker.
+     * A null {@code afterStart} returns the first page. Null filters are left out of the query.
+     */
+    List<Lead> findPageOrderByStart(LocalDateTime afterStart, Long afterId, Status status, Type type,
+                                    LocalDateTime from, LocalDateTime to,
+                                    Double minDistanceKm, Double maxDistanceKm, Pageable pageable);
+
+    /**
+     * Deletes the leads with their estimates, inventories, inventory totals and employee assignments,
+     * with one statement per table instead of loading and unlinking every lead.
+     *
+     * @param ids the IDs of the leads to delete, unknown IDs are ignored
+     * @return the number of deleted leads
+     */
+    int deleteAllByIdIn(Collection<Long> ids);
+
+    /**
+     * Updates the columns of the lead in a single statement if it still has the version, or any version if null.
+     * The associations and element collections are left as they are, so no cached collection of
+     * the customer or the employees of the lead is evicted.
+     *
+     * @param lead    the lead with the new columns
+     * @param version the version the lead must have, or null for any
+     * @return the number of updated rows, 0 if there is no such lead or it has another version
+     */
+    int updateIfVersion(Lead lead, Long version);
+}
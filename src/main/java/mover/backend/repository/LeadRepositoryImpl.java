@@ -0,0 +1,152 @@
+package mover.backend.repository;
+
+import mover.backend.model.Lead;
+import mover.backend.model.enumeration.Status;
+import mover.backend.model.enumeration.Type;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.DoubleType;
+import org.hibernate.type.LongType;
+import org.hibernate.type.StringType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Implementation of the set-based operations and filtered queries of the Lead repository.
+ * <p>
+ * Join and element-collection rows are deleted with native statements, each synchronized
+ * with its own table so the second-level cache only evicts the affected regions. Keyset pages
+ * are built from the filters present only, since {@code :x is null or ...} predicates keep the
+ * database from seeking on any index.
+ */
+@Transactional
+public class LeadRepositoryImpl implements LeadRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Lead> findPageOrderById(Long afterId, Status status, Type type, LocalDateTime from, LocalDateTime to,
+                                        Double minDistanceKm, Double maxDistanceKm, Pageable pageable) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        conditions.add("l.id > :afterId");
+        parameters.put("afterId", afterId);
+        filter(conditions, parameters, status, type, from, to, minDistanceKm, maxDistanceKm);
+        return findPage(conditions, parameters, "l.id", pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Lead> findPageOrderByStart(LocalDateTime afterStart, Long afterId, Status status, Type type,
+                                           LocalDateTime from, LocalDateTime to,
+                                           Double minDistanceKm, Double maxDistanceKm, Pageable pageable) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        if (afterStart != null) {
+            // The redundant lower bound lets the database seek on idx_lead_start_id
+            conditions.add("l.start >= :afterStart and (l.start > :afterStart or (l.start = :afterStart and l.id > :afterId))");
+            parameters.put("afterStart", afterStart);
+            parameters.put("afterId", afterId);
+        }
+        filter(conditions, parameters, status, type, from, to, minDistanceKm, maxDistanceKm);
+        return findPage(conditions, parameters, "l.start, l.id", pageable);
+    }
+
+    @Override
+    public int deleteAllByIdIn(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        deleteRows("lead_estimates", "lead_id", ids);
+        deleteRows("lead_inventories", "lead_id", ids);
+        deleteRows("lead_inventory_totals", "lead_id", ids);
+        // The join columns of Lead.assignedTos are swapped, employee_id holds the lead ID
+        deleteRows("lead_employee", "employee_id", ids);
+        int deleted = entityManager.createQuery("delete from Lead l where l.id in :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        entityManager.clear();
+        return deleted;
+    }
+
+    @Override
+    public int updateIfVersion(Lead lead, Long version) {
+        int updated = LeadWrites.create(entityManager, "update lead set start = :start, end = :end,"
+                + " type = :type, status = :status,"
+                + " origin_address = :originAddress, origin_latitude = :originLatitude, origin_longitude = :originLongitude,"
+                + " destination_address = :destinationAddress, destination_latitude = :destinationLatitude,"
+                + " destination_longitude = :destinationLongitude,"
+                + " distance_km = :distanceKm, version = version + 1"
+                + " where id = :id and (:version is null or version = :version)")
+                .setParameter("start", lead.getStart())
+                .setParameter("end", lead.getEnd())
+                .setParameter("type", lead.getType() == null ? null : lead.getType().name(), StringType.INSTANCE)
+                .setParameter("status", lead.getStatus().name())
+                .setParameter("originAddress", lead.getOrigin().getAddress())
+                .setParameter("originLatitude", lead.getOrigin().getLatitude())
+                .setParameter("originLongitude", lead.getOrigin().getLongitude())
+                .setParameter("destinationAddress", lead.getDestination().getAddress())
+                .setParameter("destinationLatitude", lead.getDestination().getLatitude())
+                .setParameter("destinationLongitude", lead.getDestination().getLongitude())
+                .setParameter("distanceKm", lead.getDistanceKm(), DoubleType.INSTANCE)
+                .setParameter("id", lead.getId())
+                .setParameter("version", version, LongType.INSTANCE)
+                .executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+
+    private static void filter(List<String> conditions, Map<String, Object> parameters, Status status, Type type,
+                               LocalDateTime from, LocalDateTime to, Double minDistanceKm, Double maxDistanceKm) {
+        if (status != null) {
+            conditions.add("l.status = :status");
+            parameters.put("status", status);
+        }
+        if (type != null) {
+            conditions.add("l.type = :type");
+            parameters.put("type", type);
+        }
+        if (from != null) {
+            conditions.add("l.start >= :from");
+            parameters.put("from", from);
+        }
+        if (to != null) {
+            conditions.add("l.end <= :to");
+            parameters.put("to", to);
+        }
+        if (minDistanceKm != null) {
+            conditions.add("l.distanceKm >= :minDistanceKm");
+            parameters.put("minDistanceKm", minDistanceKm);
+        }
+        if (maxDistanceKm != null) {
+            conditions.add("l.distanceKm <= :maxDistanceKm");
+            parameters.put("maxDistanceKm", maxDistanceKm);
+        }
+    }
+
+    private List<Lead> findPage(List<String> conditions, Map<String, Object> parameters, String orderBy,
+                                Pageable pageable) {
+        TypedQuery<Lead> query = entityManager.createQuery("select l from Lead l"
+                + (conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions))
+                + " order by " + orderBy, Lead.class)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize());
+        parameters.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    private void deleteRows(String table, String column, Collection<Long> ids) {
+        entityManager.createNativeQuery("delete from " + table + " where " + column + " in (:ids)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(table)
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,66 @@
+package mover.backend.repository;
+
+import mover.backend.model.Customer;
+import mover.backend.model.Employee;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.cache.spi.access.CollectionRegionAccessStrategy;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.query.NativeQuery;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.HashSet;
+
+/**
+ * Native writes to lead rows and lead assignments which keep the second-level cache regions of the lead owners.
+ * <p>
+ * A JPQL bulk statement on Lead, or a native one synchronized with the lead or lead_employee table, makes Hibernate
+ * evict every cached Customer.leads and Employee.leads collection. These statements are synchronized with
+ * a query space no entity or collection maps instead, so the callers lock only the entries they change.
+ */
+final class LeadWrites {
+
+    /**
+     * Query space of the native lead writes, unrelated to any mapped table.
+     */
+    static final String QUERY_SPACE = "lead_writes";
+
+    static final String CUSTOMER_LEADS = Customer.class.getName() + ".leads";
+
+    static final String EMPLOYEE_LEADS = Employee.class.getName() + ".leads";
+
+    private LeadWrites() {
+    }
+
+    /**
+     * Creates the native statement, flushing pending changes first since it does not trigger an auto flush.
+     */
+    static NativeQuery<?> create(EntityManager entityManager, String sql) {
+        entityManager.flush();
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(QUERY_SPACE);
+    }
+
+    /**
+     * Soft-locks the cached collections of the owners until the transaction completes, like Hibernate does
+     * for the collections it writes itself. Until then the entries are misses, and collections loaded from
+     * the rows before the commit are not cached. Must be called before the statement.
+     */
+    static void lockCollections(EntityManager entityManager, String role, Collection<Long> ownerIds) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        CollectionPersister persister = session.getFactory().getMetamodel().collectionPersister(role);
+        if (!persister.hasCache()) {
+            return;
+        }
+        CollectionRegionAccessStrategy access = persister.getCacheAccessStrategy();
+        for (Long owner : new HashSet<>(ownerIds)) {
+            Object key = access.generateCacheKey(owner, persister, session.getFactory(), session.getTenantIdentifier());
+            SoftLock lock = access.lockItem(session, key, null);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, completed) ->
+                    access.unlockItem(completed, key, lock));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package mover.backend.service;
+
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.util.List;
+
+/**
+ * Thrown when a lead would be assigned to an employee who is already busy with other leads at that time.
+ */
+public class BookingConflictException extends ConcurrencyFailureException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long employeeId;
+
+    private final Long leadId;
+
+    private final List<Long> conflictingLeadIds;
+
+    public BookingConflictException(Long employeeId, Long leadId, List<Long> conflictingLeadIds) {
+        super("Employee " + employeeId + " is busy with leads " + conflictingLeadIds + " during lead " + leadId);
+        this.employeeId = employeeId;
+        this.leadId = leadId;
+        this.conflictingLeadIds = conflictingLeadIds;
+    }
+
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+
+    public Long getLeadId() {
+        return leadId;
+    }
+
+    public List<Long> getConflictingLeadIds() {
+        return conflictingLeadIds;
+    }
+}
@@ -0,0 +1,220 @@
+package mover.backend.service;
+
+import mover.backend.model.Lead;
+import mover.backend.repository.EmployeeRepository;
+import mover.backend.repository.LeadRepository;
+import mover.backend.service.schedule.IntervalTree;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Assigns leads to employees and moves assigned leads without double-booking them.
+ * <p>
+ * The overlap check against the {@link EmployeeAvailabilityIndex} and the write run under locks
+ * striped by employee ID, so concurrent assignments of the same employee are serialized while
+ * assignments of different employees mostly run in parallel. Assignments and moves also lock the
+ * stripes of their leads first, so a lead does not gain an employee while it moves. Stripes are
+ * always locked leads first, each kind in ascending order, so no two writers wait for each other.
+ * The locks only protect writes made through this instance of the application.
+ */
+@Service
+public class EmployeeAssignmentService {
+
+    /**
+     * Number of lock stripes, a power of two.
+     */
+    private static final int STRIPES = 64;
+
+    private final EmployeeRepository employeeRepository;
+
+    private final LeadRepository leadRepository;
+
+    private final EmployeeAvailabilityIndex employeeAvailabilityIndex;
+
+    private final Lock[] employeeLocks = new Lock[STRIPES];
+
+    private final Lock[] leadLocks = new Lock[STRIPES];
+
+    @Autowired
+    public EmployeeAssignmentService(EmployeeRepository employeeRepository, LeadRepository leadRepository,
+                                     EmployeeAvailabilityIndex employeeAvailabilityIndex) {
+        this.employeeRepository = employeeRepository;
+        this.leadRepository = leadRepository;
+        this.employeeAvailabilityIndex = employeeAvailabilityIndex;
+        for (int i = 0; i < STRIPES; i++) {
+            employeeLocks[i] = new ReentrantLock();
+            leadLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Assigns the leads to the employee. Leads already assigned to the employee are kept as they are.
+     *
+     * @param employeeId the ID of the employee
+     * @param leadIds    the IDs of the leads to assign, unknown IDs are ignored
+     * @return the number of newly assigned leads, 0 if there is no such employee
+     * @throws BookingConflictException if a lead overlaps another lead of the employee,
+     *                                  or another of the leads to assign; then no lead is assigned
+     */
+    public int assign(Long employeeId, Collection<Long> leadIds) {
+        List<Lock> held = lockAll(leadLocks, leadIds);
+        held.addAll(lockAll(employeeLocks, Collections.singleton(employeeId)));
+        try {
+            List<Object[]> windows = leadRepository.findWindowsByIdIn(leadIds);
+            IntervalTree<LocalDateTime> assigning = new IntervalTree<>();
+            for (Object[] window : windows) {
+                Long leadId = (Long) window[0];
+                LocalDateTime start = (LocalDateTime) window[1];
+                LocalDateTime end = (LocalDateTime) window[2];
+                List<Long> conflicts = new ArrayList<>(employeeAvailabilityIndex.findConflicts(employeeId, start, end));
+                conflicts.addAll(assigning.findOverlapping(start, end));
+                conflicts.removeIf(leadId::equals);
+                if (!conflicts.isEmpty()) {
+                    if (!employeeRepository.existsById(employeeId)) {
+                        return 0;
+                    }
+                    throw new BookingConflictException(employeeId, leadId,
+                            conflicts.stream().distinct().sorted().collect(Collectors.toList()));
+                }
+                assigning.put(leadId, start, end);
+            }
+            int assigned = employeeRepository.assignLeadsById(employeeId, leadIds);
+            if (assigned > 0) {
+                windows.forEach(window -> employeeAvailabilityIndex.assign(
+                        employeeId, (Long) window[0], (LocalDateTime) window[1], (LocalDateTime) window[2]));
+            }
+            return assigned;
+        } finally {
+            unlockAll(held);
+        }
+    }
+
+    /**
+     * Unassigns the lead from the employee.
+     *
+     * @return the number of unassigned leads
+     */
+    public int unassign(Long employeeId, Long leadId) {
+        List<Lock> held = lockAll(employeeLocks, Collections.singleton(employeeId));
+        try {
+            int unassigned = employeeRepository.unassignLeadById(employeeId, leadId);
+            employeeAvailabilityIndex.unassign(employeeId, leadId);
+            return unassigned;
+        } finally {
+            unlockAll(held);
+        }
+    }
+
+    /**
+     * Moves the lead to its new start and end.
+     *
+     * @param lead  the lead with its new start and end
+     * @param write writes the lead, returns whether it was written
+     * @return whether the lead was written
+     * @throws BookingConflictException if the lead overlaps another lead of one of its employees;
+     *                                  then the lead is not written
+     */
+    public boolean move(Lead lead, BooleanSupplier write) {
+        AtomicBoolean written = new AtomicBoolean();
+        List<BookingConflictException> conflicts = move(Collections.singletonList(lead), leads -> {
+            written.set(write.getAsBoolean());
+            return written.get() ? leads : Collections.emptyList();
+        });
+        if (!conflicts.isEmpty()) {
+            throw conflicts.get(0);
+        }
+        return written.get();
+    }
+
+    /**
+     * Moves the leads to their new start and end. A lead which overlaps another lead of one of its
+     * employees, at its current window or at the new window of a lead moved before it, is not moved.
+     *
+     * @param leads the leads with their new start and end
+     * @param write writes the leads which do not conflict, returns the leads it wrote
+     * @return the conflicts of the leads which are not written, one per lead
+     */
+    public List<BookingConflictException> move(List<Lead> leads, Function<List<Lead>, List<Lead>> write) {
+        List<Lock> held = lockAll(leadLocks, leads.stream().map(Lead::getId).collect(Collectors.toList()));
+        try {
+            Map<Long, Set<Long>> employeeIds = new HashMap<>();
+            leads.forEach(lead -> employeeIds.put(lead.getId(), employeeAvailabilityIndex.findEmployees(lead.getId())));
+            held.addAll(lockAll(employeeLocks, employeeIds.values().stream()
+                    .flatMap(Set::stream)
+                    .collect(Collectors.toList())));
+            List<BookingConflictException> conflicts = new ArrayList<>();
+            List<Lead> moving = new ArrayList<>(leads.size());
+            Set<Long> movingIds = new HashSet<>();
+            Map<Long, IntervalTree<LocalDateTime>> moved = new HashMap<>();
+            for (Lead lead : leads) {
+                Long leadId = lead.getId();
+                BookingConflictException conflict = null;
+                for (Long employeeId : employeeIds.get(leadId)) {
+                    List<Long> overlapping = new ArrayList<>(
+                            employeeAvailabilityIndex.findConflicts(employeeId, lead.getStart(), lead.getEnd()));
+                    overlapping.removeIf(movingIds::contains);
+                    IntervalTree<LocalDateTime> schedule = moved.get(employeeId);
+                    if (schedule != null) {
+                        overlapping.addAll(schedule.findOverlapping(lead.getStart(), lead.getEnd()));
+                    }
+                    overlapping.removeIf(leadId::equals);
+                    if (!overlapping.isEmpty()) {
+                        conflict = new BookingConflictException(employeeId, leadId,
+                                overlapping.stream().distinct().sorted().collect(Collectors.toList()));
+                        break;
+                    }
+                }
+                if (conflict != null) {
+                    conflicts.add(conflict);
+                    continue;
+                }
+                moving.add(lead);
+                movingIds.add(leadId);
+                employeeIds.get(leadId).forEach(employeeId -> moved
+                        .computeIfAbsent(employeeId, id -> new IntervalTree<>())
+                        .put(leadId, lead.getStart(), lead.getEnd()));
+            }
+            if (!moving.isEmpty()) {
+                write.apply(moving).forEach(lead ->
+                        employeeAvailabilityIndex.moveLead(lead.getId(), lead.getStart(), lead.getEnd()));
+            }
+            return conflicts;
+        } finally {
+            unlockAll(held);
+        }
+    }
+
+    /**
+     * Locks the stripes of the IDs in ascending order.
+     *
+     * @return the locked stripes
+     */
+    private static List<Lock> lockAll(Lock[] stripes, Collection<Long> ids) {
+        SortedSet<Integer> indexes = new TreeSet<>();
+        for (Long id : ids) {
+            int hash = id.hashCode();
+            indexes.add((hash ^ (hash >>> 16)) & (STRIPES - 1));
+        }
+        List<Lock> held = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            stripes[index].lock();
+            held.add(stripes[index]);
+        }
+        return held;
+    }
+
+    private static void unlockAll(List<Lock> held) {
+        for (int i = held.size() - 1; i >= 0; i--) {
+            held.get(i).unlock();
+        }
+    }
+}
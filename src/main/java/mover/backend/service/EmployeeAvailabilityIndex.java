@@ -0,0 +1,176 @@
+package mover.backend.service;
+
+import mover.backend.repository.EmployeeRepository;
+import mover.backend.repository.LeadRepository;
+import mover.backend.service.schedule.IntervalTree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of the times employees are busy with their assigned leads.
+ * <p>
+ * Every employee has an interval tree over the start and end of its leads, so finding who is free
+ * in a time window does not load any lead. Loaded from the database on startup and kept in sync by
+ * the employee, assignment and lead write paths. Every tree is guarded by its own monitor.
+ */
+@Service
+public class EmployeeAvailabilityIndex {
+
+    private final Logger log = LoggerFactory.getLogger(EmployeeAvailabilityIndex.class);
+
+    private final EmployeeRepository employeeRepository;
+
+    private final LeadRepository leadRepository;
+
+    private final Map<Long, IntervalTree<LocalDateTime>> schedules = new ConcurrentHashMap<>();
+
+    private final Map<Long, Set<Long>> assignees = new ConcurrentHashMap<>();
+
+    @Autowired
+    public EmployeeAvailabilityIndex(EmployeeRepository employeeRepository, LeadRepository leadRepository) {
+        this.employeeRepository = employeeRepository;
+        this.leadRepository = leadRepository;
+    }
+
+    /**
+     * Loads all employees and their assigned leads.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        schedules.clear();
+        assignees.clear();
+        employeeRepository.findAllIds().forEach(this::putEmployee);
+        try (Stream<Object[]> rows = leadRepository.streamAssignments()) {
+            rows.forEach(row -> assign((Long) row[0], (Long) row[1], (LocalDateTime) row[2], (LocalDateTime) row[3]));
+        }
+        log.info("Indexed {} lead assignments of {} employees", assignees.values().stream().mapToInt(Set::size).sum(),
+                schedules.size());
+    }
+
+    public void putEmployee(Long id) {
+        schedules.putIfAbsent(id, new IntervalTree<>());
+    }
+
+    public void removeEmployee(Long id) {
+        IntervalTree<LocalDateTime> schedule = schedules.remove(id);
+        if (schedule != null) {
+            Set<Long> leadIds;
+            synchronized (schedule) {
+                leadIds = schedule.ids();
+            }
+            leadIds.forEach(leadId -> removeAssignee(leadId, id));
+        }
+    }
+
+    /**
+     * Marks the employee busy with the lead, or moves the lead if already assigned.
+     */
+    public void assign(Long employeeId, Long leadId, LocalDateTime start, LocalDateTime end) {
+        IntervalTree<LocalDateTime> schedule = schedules.computeIfAbsent(employeeId, id -> new IntervalTree<>());
+        synchronized (schedule) {
+            schedule.put(leadId, start, end);
+        }
+        assignees.compute(leadId, (id, employeeIds) -> {
+            Set<Long> result = employeeIds == null ? ConcurrentHashMap.newKeySet() : employeeIds;
+            result.add(employeeId);
+            return result;
+        });
+    }
+
+    public void unassign(Long employeeId, Long leadId) {
+        IntervalTree<LocalDateTime> schedule = schedules.get(employeeId);
+        if (schedule != null) {
+            synchronized (schedule) {
+                schedule.remove(leadId);
+            }
+        }
+        removeAssignee(leadId, employeeId);
+    }
+
+    /**
+     * Moves the lead in the schedules of its employees to its new start and end.
+     */
+    public void moveLead(Long leadId, LocalDateTime start, LocalDateTime end) {
+        Set<Long> employeeIds = assignees.get(leadId);
+        if (employeeIds != null) {
+            for (Long employeeId : employeeIds) {
+                assign(employeeId, leadId, start, end);
+            }
+        }
+    }
+
+    public void removeLead(Long leadId) {
+        Set<Long> employeeIds = assignees.remove(leadId);
+        if (employeeIds != null) {
+            for (Long employeeId : employeeIds) {
+                IntervalTree<LocalDateTime> schedule = schedules.get(employeeId);
+                if (schedule != null) {
+                    synchronized (schedule) {
+                        schedule.remove(leadId);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the IDs of the employees assigned to the lead.
+     */
+    public Set<Long> findEmployees(Long leadId) {
+        Set<Long> employeeIds = assignees.get(leadId);
+        return employeeIds == null ? Collections.emptySet() : new HashSet<>(employeeIds);
+    }
+
+    /**
+     * Finds the IDs of the leads of the employee overlapping {@code [from, to)}.
+     *
+     * @return the lead IDs ordered by lead start
+     */
+    public List<Long> findConflicts(Long employeeId, LocalDateTime from, LocalDateTime to) {
+        IntervalTree<LocalDateTime> schedule = schedules.get(employeeId);
+        if (schedule == null) {
+            return Collections.emptyList();
+        }
+        synchronized (schedule) {
+            return schedule.findOverlapping(from, to);
+        }
+    }
+
+    /**
+     * Finds the IDs of the employees without leads overlapping {@code [from, to)}.
+     *
+     * @return the employee IDs in ascending order
+     */
+    public List<Long> findAvailable(LocalDateTime from, LocalDateTime to) {
+        List<Long> available = new ArrayList<>();
+        schedules.forEach((employeeId, schedule) -> {
+            boolean busy;
+            synchronized (schedule) {
+                busy = schedule.overlaps(from, to);
+            }
+            if (!busy) {
+                available.add(employeeId);
+            }
+        });
+        Collections.sort(available);
+        return available;
+    }
+
+    private void removeAssignee(Long leadId, Long employeeId) {
+        assignees.computeIfPresent(leadId, (id, employeeIds) -> {
+            employeeIds.remove(employeeId);
+            return employeeIds.isEmpty() ? null : employeeIds;
+        });
+    }
+}
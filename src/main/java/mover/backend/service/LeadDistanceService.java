@@ -0,0 +1,149 @@
+package mover.backend.service;
+
+import mover.backend.model.Address;
+import mover.backend.model.Lead;
+import mover.backend.model.enumeration.Type;
+import mover.backend.repository.LeadRepository;
+import mover.backend.service.geo.GeoUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Computes the great-circle distance from the origin to the destination of leads,
+ * and the type of the leads by the distance.
+ * <p>
+ * Leads are classified on the lead write paths. Leads written before the distance was persisted
+ * are backfilled on startup, in chunks written by parallel transactions.
+ */
+@Service
+public class LeadDistanceService {
+
+    private final Logger log = LoggerFactory.getLogger(LeadDistanceService.class);
+
+    private final LeadRepository leadRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final double localMaxDistanceKm;
+
+    private final int backfillThreads;
+
+    private final int chunkSize;
+
+    @Autowired
+    public LeadDistanceService(LeadRepository leadRepository,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${mover.lead.local-max-distance-km:50}") double localMaxDistanceKm,
+                               @Value("${mover.lead.distance-backfill.threads:4}") int backfillThreads,
+                               @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int chunkSize) {
+        this.leadRepository = leadRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.localMaxDistanceKm = localMaxDistanceKm;
+        this.backfillThreads = backfillThreads;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Sets the distance of the lead, and its type if not set.
+     * A lead without the coordinates of its origin and destination is left as it is.
+     *
+     * @return the lead
+     */
+    public Lead classify(Lead lead) {
+        Address origin = lead.getOrigin();
+        Address destination = lead.getDestination();
+        if (origin == null || origin.getLatitude() == null || origin.getLongitude() == null
+                || destination == null || destination.getLatitude() == null || destination.getLongitude() == null) {
+            return lead;
+        }
+        double distanceKm = GeoUtil.distanceKm(origin.getLatitude(), origin.getLongitude(),
+                destination.getLatitude(), destination.getLongitude());
+        lead.setDistanceKm(distanceKm);
+        if (lead.getType() == null) {
+            lead.setType(typeOf(distanceKm));
+        }
+        return lead;
+    }
+
+    /**
+     * Type of a lead by its distance, {@link Type#LOCAL} up to {@code mover.lead.local-max-distance-km}.
+     */
+    public Type typeOf(double distanceKm) {
+        return distanceKm <= localMaxDistanceKm ? Type.LOCAL : Type.DISTANCE;
+    }
+
+    /**
+     * Computes the distance of all leads without one.
+     *
+     * @return the number of updated leads
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int backfill() {
+        ExecutorService executor = Executors.newFixedThreadPool(backfillThreads);
+        try {
+            List<Future<Integer>> chunks = new ArrayList<>();
+            Long afterId = 0L;
+            List<Long> ids;
+            do {
+                ids = leadRepository.findIdsWithoutDistance(afterId, PageRequest.of(0, chunkSize));
+                if (!ids.isEmpty()) {
+                    List<Long> chunk = ids;
+                    chunks.add(executor.submit(() -> backfillChunk(chunk)));
+                    afterId = ids.get(ids.size() - 1);
+                }
+            } while (ids.size() == chunkSize);
+            int updated = 0;
+            for (Future<Integer> chunk : chunks) {
+                updated += chunk.get();
+            }
+            log.info("Backfilled the distance of {} leads in {} chunks", updated, chunks.size());
+            return updated;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backfilling lead distances", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to backfill lead distances", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Sets the distance of the leads of a chunk in a transaction, flushed as JDBC batches.
+     * Leads which got a distance since the chunk was read are left as they are.
+     */
+    private int backfillChunk(List<Long> ids) {
+        return transactionTemplate.execute(status -> {
+            int updated = 0;
+            for (Lead lead : leadRepository.findAllById(ids)) {
+                if (lead.getDistanceKm() == null) {
+                    classify(lead);
+                    updated++;
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+            return updated;
+        });
+    }
+}
@@ -0,0 +1,122 @@
+package mover.backend.service;
+
+import mover.backend.model.Address;
+import mover.backend.model.Lead;
+import mover.backend.repository.LeadRepository;
+import mover.backend.service.geo.GeoGridIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * In-memory spatial index over the origins and destinations of leads.
+ * <p>
+ * Loaded from the database on startup and kept in sync by the lead write paths.
+ * Query results are lead IDs, so an entry left behind by a rolled back write
+ * only costs a miss when the leads are loaded.
+ */
+@Service
+public class LeadSpatialIndex {
+
+    private final Logger log = LoggerFactory.getLogger(LeadSpatialIndex.class);
+
+    /**
+     * The point of a lead to search by.
+     */
+    public enum Location {
+        ORIGIN, DESTINATION
+    }
+
+    private final LeadRepository leadRepository;
+
+    private final GeoGridIndex origins;
+
+    private final GeoGridIndex destinations;
+
+    @Autowired
+    public LeadSpatialIndex(LeadRepository leadRepository,
+                            @Value("${mover.lead.spatial-index.cell-size:0.05}") double cellSize) {
+        this.leadRepository = leadRepository;
+        this.origins = new GeoGridIndex(cellSize);
+        this.destinations = new GeoGridIndex(cellSize);
+    }
+
+    /**
+     * Loads the coordinates of all leads.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        origins.clear();
+        destinations.clear();
+        try (Stream<Object[]> rows = leadRepository.streamCoordinates()) {
+            rows.forEach(row -> {
+                long id = (Long) row[0];
+                put(origins, id, (Double) row[1], (Double) row[2]);
+                put(destinations, id, (Double) row[3], (Double) row[4]);
+            });
+        }
+        log.info("Indexed {} lead origins and {} lead destinations", origins.size(), destinations.size());
+    }
+
+    public void put(Lead lead) {
+        if (lead.getId() == null) {
+            return;
+        }
+        put(origins, lead.getId(), lead.getOrigin());
+        put(destinations, lead.getId(), lead.getDestination());
+    }
+
+    public void remove(Long id) {
+        origins.remove(id);
+        destinations.remove(id);
+    }
+
+    /**
+     * Finds the IDs of the leads whose location is within {@code radiusKm} of the point.
+     *
+     * @return the hits sorted by distance, nearest first
+     */
+    public List<GeoGridIndex.Hit> findNear(Location location, double latitude, double longitude,
+                                           double radiusKm, int limit) {
+        return index(location).findWithinRadius(latitude, longitude, radiusKm, limit);
+    }
+
+    /**
+     * Finds the IDs of the leads whose location is within the bounding box.
+     *
+     * @return the hits sorted by distance from the box center, nearest first
+     */
+    public List<GeoGridIndex.Hit> findWithin(Location location, double minLatitude, double minLongitude,
+                                             double maxLatitude, double maxLongitude, int limit) {
+        return index(location).findWithinBox(minLatitude, minLongitude, maxLatitude, maxLongitude, limit);
+    }
+
+    private GeoGridIndex index(Location location) {
+        return location == Location.DESTINATION ? destinations : origins;
+    }
+
+    private static void put(GeoGridIndex index, long id, Address address) {
+        if (address == null) {
+            index.remove(id);
+        } else {
+            put(index, id, address.getLatitude(), address.getLongitude());
+        }
+    }
+
+    private static void put(GeoGridIndex index, long id, Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            index.remove(id);
+        } else {
+            index.put(id, latitude, longitude);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package mover.backend.service;
+
+import mover.backend.model.Lead;
+import mover.backend.model.enumeration.Status;
+import mover.backend.model.enumeration.Type;
+import mover.backend.repository.LeadRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Live counts of leads per status and type.
+ * <p>
+ * Every combination of status and type has a {@link LongAdder}, so concurrent writes do not contend
+ * and reading the counts takes no lock and no query. The last known status and type of every lead
+ * are kept to move it between counters when it changes. Loaded from the database on startup, kept
+ * in step by the lead write paths and reconciled with the database periodically, which corrects the
+ * drift of rolled back writes and of leads written around the REST resources.
+ */
+@Service
+public class LeadStatistics {
+
+    private static final Status[] STATUSES = Status.values();
+
+    private static final Type[] TYPES = Type.values();
+
+    private final Logger log = LoggerFactory.getLogger(LeadStatistics.class);
+
+    private final LeadRepository leadRepository;
+
+    private final LongAdder[] counters = new LongAdder[STATUSES.length * TYPES.length];
+
+    /**
+     * Counter index of the last known status and type by lead ID.
+     */
+    private final Map<Long, Integer> leads = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LeadStatistics(LeadRepository leadRepository) {
+        this.leadRepository = leadRepository;
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Reconciles the counts with the database. A lead written while it is read may keep
+     * its old status and type until the next reconciliation.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${mover.lead.statistics.reconcile-interval:300000}",
+            fixedDelayString = "${mover.lead.statistics.reconcile-interval:300000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        Set<Long> unseen = new HashSet<>(leads.keySet());
+        try (Stream<Object[]> rows = leadRepository.streamStatusesAndTypes()) {
+            rows.forEach(row -> {
+                Long id = (Long) row[0];
+                put(id, (Status) row[1], (Type) row[2]);
+                unseen.remove(id);
+            });
+        }
+        unseen.forEach(this::remove);
+        log.info("Reconciled the counts of {} leads, {} were not found", leads.size(), unseen.size());
+    }
+
+    /**
+     * Counts the lead by its status and type, or moves it if already counted.
+     */
+    public void put(Lead lead) {
+        if (lead.getId() != null && lead.getStatus() != null && lead.getType() != null) {
+            put(lead.getId(), lead.getStatus(), lead.getType());
+        }
+    }
+
+    public void remove(Long id) {
+        Integer previous = leads.remove(id);
+        if (previous != null) {
+            counters[previous].decrement();
+        }
+    }
+
+    public long count(Status status) {
+        long count = 0;
+        for (Type type : TYPES) {
+            count += count(status, type);
+        }
+        return count;
+    }
+
+    public long count(Type type) {
+        long count = 0;
+        for (Status status : STATUSES) {
+            count += count(status, type);
+        }
+        return count;
+    }
+
+    public long count(Status status, Type type) {
+        return counters[index(status, type)].sum();
+    }
+
+    private void put(Long id, Status status, Type type) {
+        int index = index(status, type);
+        Integer previous = leads.put(id, index);
+        if (previous == null || previous != index) {
+            counters[index].increment();
+            if (previous != null) {
+                counters[previous].decrement();
+            }
+        }
+    }
+
+    private static int index(Status status, Type type) {
+        return status.ordinal() * TYPES.length + type.ordinal();
+    }
+}
@@ -0,0 +1,103 @@
+package mover.backend.service;
+
+import mover.backend.model.Person;
+import mover.backend.repository.CustomerRepository;
+import mover.backend.repository.EmployeeRepository;
+import mover.backend.service.search.PrefixIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * In-memory search index over the names, emails and phones of customers and employees.
+ * <p>
+ * Loaded from the database on startup and kept in sync by the customer and employee write paths.
+ * Query results are IDs, so an entry left behind by a rolled back write only costs a miss
+ * when the people are loaded.
+ */
+@Service
+public class PersonSearchIndex {
+
+    private final Logger log = LoggerFactory.getLogger(PersonSearchIndex.class);
+
+    private final CustomerRepository customerRepository;
+
+    private final EmployeeRepository employeeRepository;
+
+    private final PrefixIndex customers = new PrefixIndex();
+
+    private final PrefixIndex employees = new PrefixIndex();
+
+    @Autowired
+    public PersonSearchIndex(CustomerRepository customerRepository, EmployeeRepository employeeRepository) {
+        this.customerRepository = customerRepository;
+        this.employeeRepository = employeeRepository;
+    }
+
+    /**
+     * Loads the search fields of all customers and employees.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        load(customers, customerRepository.streamSearchFields());
+        load(employees, employeeRepository.streamSearchFields());
+        log.info("Indexed {} customers and {} employees for search", customers.size(), employees.size());
+    }
+
+    public void putCustomer(Person customer) {
+        put(customers, customer);
+    }
+
+    public void removeCustomer(Long id) {
+        customers.remove(id);
+    }
+
+    /**
+     * Finds the IDs of the customers with a name, email or phone starting with every word of the query.
+     *
+     * @return at most {@code limit} IDs, best match first
+     */
+    public List<Long> searchCustomers(String query, int limit) {
+        return customers.search(query, limit);
+    }
+
+    public void putEmployee(Person employee) {
+        put(employees, employee);
+    }
+
+    public void removeEmployee(Long id) {
+        employees.remove(id);
+    }
+
+    /**
+     * Finds the IDs of the employees with a name, email or phone starting with every word of the query.
+     *
+     * @return at most {@code limit} IDs, best match first
+     */
+    public List<Long> searchEmployees(String query, int limit) {
+        return employees.search(query, limit);
+    }
+
+    private static void load(PrefixIndex index, Stream<Object[]> rows) {
+        index.clear();
+        try (Stream<Object[]> fields = rows) {
+            fields.forEach(row -> index.put((Long) row[0], (String) row[1], (String) row[2],
+                    (String) row[3], (String) row[4]));
+        }
+    }
+
+    private static void put(PrefixIndex index, Person person) {
+        if (person.getId() != null) {
+            index.put(person.getId(), person.getFirstName(), person.getLastName(), person.getEmail(),
+                    person.getPhone());
+        }
+    }
+}
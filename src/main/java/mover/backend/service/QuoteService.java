@@ -0,0 +1,191 @@
+package mover.backend.service;
+
+import mover.backend.config.PricingProperties;
+import mover.backend.repository.LeadRepository;
+import mover.backend.service.pricing.Quote;
+import mover.backend.service.pricing.QuoteRun;
+import mover.backend.service.pricing.Tariff;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Prices leads by the tariffs of {@link PricingProperties}.
+ * <p>
+ * The totals of the estimates and inventories of a lead are aggregated by the database, so pricing
+ * loads neither the lead nor its collections. Quotes are cached per lead and tariff along with the
+ * version of the lead they price, which changes with every change of the lead and its collections,
+ * so a cached quote is only returned while the lead still has its version.
+ * <p>
+ * Like the second-level cache regions, the cache of every tariff is bounded by size and quotes expire,
+ * so quotes of deleted and past leads do not stay in memory.
+ */
+@Service
+public class QuoteService {
+
+    private final Logger log = LoggerFactory.getLogger(QuoteService.class);
+
+    private final LeadRepository leadRepository;
+
+    private final PricingProperties pricingProperties;
+
+    private final Map<String, Map<Long, CachedQuote>> quotes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public QuoteService(LeadRepository leadRepository, PricingProperties pricingProperties) {
+        this.leadRepository = leadRepository;
+        this.pricingProperties = pricingProperties;
+    }
+
+    public boolean hasTariff(String name) {
+        return pricingProperties.getTariffs().containsKey(name);
+    }
+
+    public String getDefaultTariff() {
+        return pricingProperties.getDefaultTariff();
+    }
+
+    /**
+     * Quotes the current version of the lead under the tariff.
+     *
+     * @return the quote, empty if there is no such lead
+     * @throws IllegalArgumentException if there is no such tariff
+     */
+    public Optional<Quote> quote(Long leadId, String tariff) {
+        Map<Long, CachedQuote> cache = cache(tariff);
+        Optional<Long> version = leadRepository.findVersionById(leadId);
+        if (!version.isPresent()) {
+            cache.remove(leadId);
+            return Optional.empty();
+        }
+        CachedQuote cached = cache.get(leadId);
+        if (cached != null && !cached.isExpired(System.nanoTime())
+                && cached.quote.getVersion().equals(version.get())) {
+            return Optional.of(cached.quote);
+        }
+        return quoteAll(Collections.singletonList(leadId), tariff).stream().findFirst();
+    }
+
+    /**
+     * Quotes all leads starting from now on under the tariff, in chunks quoted by parallel workers.
+     *
+     * @throws IllegalArgumentException if there is no such tariff
+     */
+    public QuoteRun requoteUpcoming(String tariff) {
+        cache(tariff);
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        int chunkSize = pricingProperties.getRequoteChunkSize();
+        ExecutorService executor = Executors.newFixedThreadPool(pricingProperties.getRequoteThreads());
+        try {
+            List<Future<List<Quote>>> chunks = new ArrayList<>();
+            Long afterId = 0L;
+            List<Long> ids;
+            do {
+                ids = leadRepository.findIdsByStartFrom(afterId, now, PageRequest.of(0, chunkSize));
+                if (!ids.isEmpty()) {
+                    List<Long> chunk = ids;
+                    chunks.add(executor.submit(() -> quoteAll(chunk, tariff)));
+                    afterId = ids.get(ids.size() - 1);
+                }
+            } while (ids.size() == chunkSize);
+            int leads = 0;
+            BigDecimal total = BigDecimal.ZERO;
+            for (Future<List<Quote>> chunk : chunks) {
+                for (Quote quote : chunk.get()) {
+                    leads++;
+                    total = total.add(quote.getTotal());
+                }
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            log.info("Quoted {} upcoming leads under tariff {} in {} ms", leads, tariff, elapsedMillis);
+            return new QuoteRun(tariff, leads, total, elapsedMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while quoting upcoming leads", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to quote upcoming leads", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Quotes the leads with one aggregate statement and caches the quotes.
+     */
+    private List<Quote> quoteAll(List<Long> leadIds, String tariff) {
+        Tariff rates = pricingProperties.getTariffs().get(tariff);
+        Map<Long, CachedQuote> cache = cache(tariff);
+        long expiresAt = System.nanoTime() + pricingProperties.getQuoteCacheTtl().toNanos();
+        List<Quote> result = new ArrayList<>(leadIds.size());
+        for (Object[] row : leadRepository.findQuoteTotalsByIdIn(leadIds)) {
+            Quote quote = rates.quote(tariff, (Long) row[0], (Long) row[1], ((Number) row[3]).longValue(),
+                    ((Number) row[4]).longValue(), ((Number) row[5]).longValue(), (Double) row[2]);
+            cache.merge(quote.getLeadId(), new CachedQuote(quote, expiresAt),
+                    (cached, quoted) -> cached.quote.getVersion() > quote.getVersion() ? cached : quoted);
+            result.add(quote);
+        }
+        if (cache.size() > pricingProperties.getQuoteCacheSize()) {
+            trim(cache);
+        }
+        return result;
+    }
+
+    /**
+     * Number of quotes cached under the tariff.
+     */
+    public int cachedQuotes(String tariff) {
+        return cache(tariff).size();
+    }
+
+    /**
+     * Removes the expired quotes, then arbitrary ones until the cache is a tenth below its size,
+     * so a cache at its size is not trimmed after every quote.
+     */
+    private void trim(Map<Long, CachedQuote> cache) {
+        synchronized (cache) {
+            int maxSize = pricingProperties.getQuoteCacheSize();
+            if (cache.size() <= maxSize) {
+                return;
+            }
+            long now = System.nanoTime();
+            cache.values().removeIf(cached -> cached.isExpired(now));
+            int targetSize = maxSize - maxSize / 10;
+            Iterator<Long> leadIds = cache.keySet().iterator();
+            while (cache.size() > targetSize && leadIds.hasNext()) {
+                leadIds.next();
+                leadIds.remove();
+            }
+        }
+    }
+
+    private Map<Long, CachedQuote> cache(String tariff) {
+        if (!hasTariff(tariff)) {
+            throw new IllegalArgumentException("No such tariff: " + tariff);
+        }
+        return quotes.computeIfAbsent(tariff, name -> new ConcurrentHashMap<>());
+    }
+
+    private static final class CachedQuote {
+
+        private final Quote quote;
+
+        private final long expiresAt;
+
+        private CachedQuote(Quote quote, long expiresAt) {
+            this.quote = quote;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
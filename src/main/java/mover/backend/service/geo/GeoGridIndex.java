@@ -0,0 +1,186 @@
+package mover.backend.service.geo;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory spatial index of points keyed by ID.
+ * <p>
+ * Points are bucketed into a fixed grid of {@code cellSize} x {@code cellSize} degree cells,
+ * so a radius or bounding box query only visits the cells it overlaps.
+ * Reads are lock-free, writes are serialized. Queries do not wrap around the antimeridian.
+ */
+public class GeoGridIndex {
+
+    private final double cellSize;
+
+    private final long columns;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Map<Long, Map<Long, Entry>> cells = new ConcurrentHashMap<>();
+
+    /**
+     * @param cellSize the cell edge length in degrees
+     */
+    public GeoGridIndex(double cellSize) {
+        if (cellSize <= 0 || cellSize > 180) {
+            throw new IllegalArgumentException("Cell size must be in (0, 180] degrees: " + cellSize);
+        }
+        this.cellSize = cellSize;
+        this.columns = (long) Math.ceil(360 / cellSize) + 1;
+    }
+
+    /**
+     * Adds the point or moves it if the ID is already indexed.
+     */
+    public synchronized void put(long id, double latitude, double longitude) {
+        Entry entry = new Entry(id, latitude, longitude, cellKey(row(latitude), column(longitude)));
+        Entry previous = entries.put(id, entry);
+        if (previous != null && previous.cell != entry.cell) {
+            removeFromCell(previous);
+        }
+        cells.computeIfAbsent(entry.cell, key -> new ConcurrentHashMap<>()).put(id, entry);
+    }
+
+    /**
+     * Removes the point with the ID if indexed.
+     */
+    public synchronized void remove(long id) {
+        Entry previous = entries.remove(id);
+        if (previous != null) {
+            removeFromCell(previous);
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        cells.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Finds the points within {@code radiusKm} of the center.
+     *
+     * @param limit maximal number of hits to return
+     * @return the hits sorted by distance from the center, nearest first
+     */
+    public List<Hit> findWithinRadius(double latitude, double longitude, double radiusKm, int limit) {
+        double latDelta = radiusKm / GeoUtil.KM_PER_DEGREE;
+        double cos = Math.cos(Math.toRadians(Math.min(90, Math.abs(latitude) + latDelta)));
+        double lonDelta = cos < 1e-9 ? 180 : Math.min(180, latDelta / cos);
+        List<Hit> hits = new ArrayList<>();
+        for (Entry entry : candidates(latitude - latDelta, longitude - lonDelta,
+                latitude + latDelta, longitude + lonDelta)) {
+            double distance = GeoUtil.distanceKm(latitude, longitude, entry.latitude, entry.longitude);
+            if (distance <= radiusKm) {
+                hits.add(new Hit(entry.id, distance));
+            }
+        }
+        return nearest(hits, limit);
+    }
+
+    /**
+     * Finds the points inside the bounding box.
+     *
+     * @param limit maximal number of hits to return
+     * @return the hits sorted by distance from the box center, nearest first
+     */
+    public List<Hit> findWithinBox(double minLatitude, double minLongitude,
+                                   double maxLatitude, double maxLongitude, int limit) {
+        double centerLatitude = (minLatitude + maxLatitude) / 2;
+        double centerLongitude = (minLongitude + maxLongitude) / 2;
+        List<Hit> hits = new ArrayList<>();
+        for (Entry entry : candidates(minLatitude, minLongitude, maxLatitude, maxLongitude)) {
+            if (entry.latitude >= minLatitude && entry.latitude <= maxLatitude
+                    && entry.longitude >= minLongitude && entry.longitude <= maxLongitude) {
+                hits.add(new Hit(entry.id, GeoUtil.distanceKm(
+                        centerLatitude, centerLongitude, entry.latitude, entry.longitude)));
+            }
+        }
+        return nearest(hits, limit);
+    }
+
+    private Collection<Entry> candidates(double minLatitude, double minLongitude,
+                                         double maxLatitude, double maxLongitude) {
+        long minRow = row(minLatitude);
+        long maxRow = row(maxLatitude);
+        long minColumn = column(minLongitude);
+        long maxColumn = column(maxLongitude);
+        List<Entry> candidates = new ArrayList<>();
+        if ((maxRow - minRow + 1) * (maxColumn - minColumn + 1) > cells.size()) {
+            // the box covers more cells than are occupied, scan the occupied ones
+            cells.forEach((key, cell) -> {
+                long row = key / columns;
+                long column = key % columns;
+                if (row >= minRow && row <= maxRow && column >= minColumn && column <= maxColumn) {
+                    candidates.addAll(cell.values());
+                }
+            });
+            return candidates;
+        }
+        for (long row = minRow; row <= maxRow; row++) {
+            for (long column = minColumn; column <= maxColumn; column++) {
+                Map<Long, Entry> cell = cells.get(cellKey(row, column));
+                if (cell != null) {
+                    candidates.addAll(cell.values());
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private static List<Hit> nearest(List<Hit> hits, int limit) {
+        hits.sort(Comparator.comparingDouble(Hit::getDistanceKm));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    private void removeFromCell(Entry entry) {
+        cells.computeIfPresent(entry.cell, (key, cell) -> {
+            cell.remove(entry.id);
+            return cell.isEmpty() ? null : cell;
+        });
+    }
+
+    private long row(double latitude) {
+        return (long) Math.floor((clamp(latitude, -90, 90) + 90) / cellSize);
+    }
+
+    private long column(double longitude) {
+        return (long) Math.floor((clamp(longitude, -180, 180) + 180) / cellSize);
+    }
+
+    private long cellKey(long row, long column) {
+        return row * columns + column;
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    @Value
+    private static class Entry {
+        long id;
+        double latitude;
+        double longitude;
+        long cell;
+    }
+
+    /**
+     * A point found by a query with its distance in kilometers.
+     */
+    @Value
+    public static class Hit {
+        long id;
+        double distanceKm;
+    }
+}
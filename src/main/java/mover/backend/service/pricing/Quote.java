@@ -0,0 +1,30 @@
+package mover.backend.service.pricing;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * A Quote represents the price of a version of a lead under a tariff, itemized by charge.
+ */
+@Data
+@AllArgsConstructor
+public class Quote {
+
+    private final Long leadId;
+
+    private final Long version;
+
+    private final String tariff;
+
+    private final BigDecimal estimates;
+
+    private final BigDecimal weightCharge;
+
+    private final BigDecimal volumeCharge;
+
+    private final BigDecimal distanceCharge;
+
+    private final BigDecimal total;
+}
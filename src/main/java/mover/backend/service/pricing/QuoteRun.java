@@ -0,0 +1,25 @@
+package mover.backend.service.pricing;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * A QuoteRun represents the outcome of quoting many leads under a tariff at once.
+ */
+@Data
+@AllArgsConstructor
+public class QuoteRun {
+
+    private final String tariff;
+
+    private final int leads;
+
+    /**
+     * Sum of the totals of all quotes.
+     */
+    private final BigDecimal total;
+
+    private final long elapsedMillis;
+}
@@ -0,0 +1,51 @@
+package mover.backend.service.pricing;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * A Tariff represents the rates a lead is charged by, on top of the price of its estimates.
+ * Weight and volume are charged per unit of the inventory totals, distance per kilometer of the route.
+ */
+@Data
+@Accessors(chain = true)
+public class Tariff {
+
+    private BigDecimal perWeight = BigDecimal.ZERO;
+
+    private BigDecimal perVolume = BigDecimal.ZERO;
+
+    private BigDecimal perKm = BigDecimal.ZERO;
+
+    /**
+     * Least total of a quote.
+     */
+    private BigDecimal minimum = BigDecimal.ZERO;
+
+    /**
+     * Prices a lead by the totals of its estimates and inventories and its distance.
+     *
+     * @param estimates  the sum of quantity times price of the estimates
+     * @param weight     the total weight of the inventories
+     * @param volume     the total volume of the inventories
+     * @param distanceKm the distance of the route, null if unknown
+     */
+    public Quote quote(String name, Long leadId, Long version,
+                       long estimates, long weight, long volume, Double distanceKm) {
+        BigDecimal weightCharge = charge(perWeight.multiply(BigDecimal.valueOf(weight)));
+        BigDecimal volumeCharge = charge(perVolume.multiply(BigDecimal.valueOf(volume)));
+        BigDecimal distanceCharge = distanceKm == null
+                ? charge(BigDecimal.ZERO)
+                : charge(perKm.multiply(BigDecimal.valueOf(distanceKm)));
+        BigDecimal total = charge(BigDecimal.valueOf(estimates)).add(weightCharge).add(volumeCharge).add(distanceCharge);
+        return new Quote(leadId, version, name, charge(BigDecimal.valueOf(estimates)),
+                weightCharge, volumeCharge, distanceCharge, total.max(charge(minimum)));
+    }
+
+    private static BigDecimal charge(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,237 @@
+package mover.backend.service.schedule;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Interval tree of half-open {@code [start, end)} intervals keyed by ID.
+ * <p>
+ * An AVL tree ordered by start, where every node keeps the greatest end of its subtree,
+ * so an overlap check takes O(log n) and listing the k overlapping intervals O(k log n).
+ * Intervals which only touch, one ending when the other starts, do not overlap.
+ * Not thread-safe.
+ *
+ * @param <T> type of the interval bounds
+ */
+public class IntervalTree<T extends Comparable<? super T>> {
+
+    private final Map<Long, Node<T>> nodes = new HashMap<>();
+
+    private Node<T> root;
+
+    /**
+     * Adds the interval or moves it if the ID is already in the tree.
+     */
+    public void put(long id, T start, T end) {
+        if (start.compareTo(end) > 0) {
+            throw new IllegalArgumentException("Interval must not end before it starts: " + start + " - " + end);
+        }
+        remove(id);
+        Node<T> node = new Node<>(id, start, end);
+        nodes.put(id, node);
+        root = insert(root, node);
+    }
+
+    /**
+     * Removes the interval with the ID if in the tree.
+     *
+     * @return whether the interval was in the tree
+     */
+    public boolean remove(long id) {
+        Node<T> node = nodes.remove(id);
+        if (node == null) {
+            return false;
+        }
+        root = delete(root, node);
+        return true;
+    }
+
+    public boolean contains(long id) {
+        return nodes.containsKey(id);
+    }
+
+    /**
+     * IDs of all intervals in the tree.
+     */
+    public Set<Long> ids() {
+        return new HashSet<>(nodes.keySet());
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    /**
+     * Whether any interval overlaps {@code [from, to)}.
+     */
+    public boolean overlaps(T from, T to) {
+        Node<T> node = root;
+        while (node != null && !node.overlaps(from, to)) {
+            // If the left subtree reaches past from but does not overlap,
+            // its latest ending interval starts after to, and so does the right subtree
+            node = node.left != null && node.left.maxEnd.compareTo(from) > 0 ? node.left : node.right;
+        }
+        return node != null;
+    }
+
+    /**
+     * Finds the IDs of the intervals overlapping {@code [from, to)}.
+     *
+     * @return the IDs ordered by interval start
+     */
+    public List<Long> findOverlapping(T from, T to) {
+        List<Long> ids = new ArrayList<>();
+        collect(root, from, to, ids);
+        return ids;
+    }
+
+    private void collect(Node<T> node, T from, T to, List<Long> ids) {
+        if (node == null || node.maxEnd.compareTo(from) <= 0) {
+            return;
+        }
+        collect(node.left, from, to, ids);
+        if (node.start.compareTo(to) < 0) {
+            if (node.end.compareTo(from) > 0) {
+                ids.add(node.id);
+            }
+            collect(node.right, from, to, ids);
+        }
+    }
+
+    private Node<T> insert(Node<T> subtree, Node<T> node) {
+        if (subtree == null) {
+            return node;
+        }
+        if (node.compareTo(subtree) < 0) {
+            subtree.left = insert(subtree.left, node);
+        } else {
+            subtree.right = insert(subtree.right, node);
+        }
+        return balance(subtree);
+    }
+
+    private Node<T> delete(Node<T> subtree, Node<T> node) {
+        int comparison = node.compareTo(subtree);
+        if (comparison < 0) {
+            subtree.left = delete(subtree.left, node);
+        } else if (comparison > 0) {
+            subtree.right = delete(subtree.right, node);
+        } else {
+            if (subtree.left == null) {
+                return subtree.right;
+            }
+            if (subtree.right == null) {
+                return subtree.left;
+            }
+            Node<T> successor = subtree.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = deleteMin(subtree.right);
+            successor.left = subtree.left;
+            subtree = successor;
+        }
+        return balance(subtree);
+    }
+
+    private Node<T> deleteMin(Node<T> subtree) {
+        if (subtree.left == null) {
+            return subtree.right;
+        }
+        subtree.left = deleteMin(subtree.left);
+        return balance(subtree);
+    }
+
+    private Node<T> balance(Node<T> node) {
+        node.update();
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node<T extends Comparable<? super T>> implements Comparable<Node<T>> {
+
+        private final long id;
+
+        private final T start;
+
+        private final T end;
+
+        private T maxEnd;
+
+        private int height = 1;
+
+        private Node<T> left;
+
+        private Node<T> right;
+
+        private Node(long id, T start, T end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+
+        private boolean overlaps(T from, T to) {
+            return start.compareTo(to) < 0 && end.compareTo(from) > 0;
+        }
+
+        private void update() {
+            height = 1 + Math.max(height(left), height(right));
+            maxEnd = end;
+            if (left != null && left.maxEnd.compareTo(maxEnd) > 0) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.compareTo(maxEnd) > 0) {
+                maxEnd = right.maxEnd;
+            }
+        }
+
+        @Override
+        public int compareTo(Node<T> other) {
+            int comparison = start.compareTo(other.start);
+            return comparison != 0 ? comparison : Long.compare(id, other.id);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package mover.backend.service.search;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index of the words of text fields keyed by ID, searched by word prefix.
+ * <p>
+ * Words are the lower case runs of letters and digits of a field. A field with several groups of
+ * digits, such as a phone number, is also indexed by all its digits. The words are kept in a sorted
+ * map, so the words starting with a prefix are a range of the map found in O(log n). A query matches
+ * the documents in which every query word starts some indexed word. The matches are ranked by how
+ * closely the query words match, exact words first, then the shortest words.
+ * <p>
+ * Searches take no lock. They scan the documents of the query word matching the fewest documents,
+ * at most {@link #MAX_CANDIDATES} of them, so their cost does not grow with the index. Writes are serialized.
+ */
+public class PrefixIndex {
+
+    /**
+     * Maximal number of documents a search ranks. Matches are only missed when every word
+     * of the query matches more documents.
+     */
+    public static final int MAX_CANDIDATES = 5_000;
+
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Pattern NOT_DIGIT = Pattern.compile("\\D+");
+
+    private static final int EXACT_SCORE = 1_000;
+
+    private static final int PREFIX_SCORE = 500;
+
+    private final ConcurrentNavigableMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+
+    private final Map<Long, String[]> documents = new ConcurrentHashMap<>();
+
+    /**
+     * Indexes the fields of the document, replacing its previous fields. Null fields are skipped.
+     */
+    public synchronized void put(long id, String... fields) {
+        String[] words = indexWords(fields);
+        String[] previous = documents.put(id, words);
+        if (previous != null) {
+            unindex(id, previous);
+        }
+        for (String word : words) {
+            postings.computeIfAbsent(word, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    public synchronized void remove(long id) {
+        String[] previous = documents.remove(id);
+        if (previous != null) {
+            unindex(id, previous);
+        }
+    }
+
+    public synchronized void clear() {
+        postings.clear();
+        documents.clear();
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Finds the documents in which every word of the query starts an indexed word.
+     *
+     * @return the IDs of at most {@code limit} documents, best match first
+     */
+    public List<Long> search(String query, int limit) {
+        String[] terms = words(query);
+        if (terms.length == 0 || limit < 1) {
+            return Collections.emptyList();
+        }
+        String narrowest = narrowest(terms);
+        Comparator<Hit> ranking = Comparator.comparingInt((Hit hit) -> hit.score).reversed()
+                .thenComparingLong(hit -> hit.id);
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, ranking.reversed());
+        Set<Long> seen = new HashSet<>();
+        ranking:
+        for (Set<Long> ids : range(narrowest).values()) {
+            for (Long id : ids) {
+                if (!seen.add(id)) {
+                    continue;
+                }
+                String[] words = documents.get(id);
+                int score = words == null ? 0 : score(terms, words);
+                if (score > 0) {
+                    top.offer(new Hit(id, score));
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+                if (seen.size() >= MAX_CANDIDATES) {
+                    break ranking;
+                }
+            }
+        }
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(ranking);
+        List<Long> result = new ArrayList<>(hits.size());
+        hits.forEach(hit -> result.add(hit.id));
+        return result;
+    }
+
+    /**
+     * The term starting the words of the fewest documents. Longer terms are counted first,
+     * as they usually match fewer documents, and counting stops at the fewest so far.
+     */
+    private String narrowest(String[] terms) {
+        String[] byLength = terms.clone();
+        Arrays.sort(byLength, Comparator.comparingInt(String::length).reversed());
+        String narrowest = byLength[0];
+        int fewest = MAX_CANDIDATES + 1;
+        for (String term : byLength) {
+            int count = 0;
+            for (Set<Long> ids : range(term).values()) {
+                count += ids.size();
+                if (count >= fewest) {
+                    break;
+                }
+            }
+            if (count < fewest) {
+                narrowest = term;
+                fewest = count;
+            }
+        }
+        return narrowest;
+    }
+
+    private ConcurrentNavigableMap<String, Set<Long>> range(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * Sum of the scores of the best matching word of every term, 0 if a term matches no word.
+     */
+    private static int score(String[] terms, String[] words) {
+        int score = 0;
+        for (String term : terms) {
+            int best = 0;
+            for (String word : words) {
+                if (word.equals(term)) {
+                    best = EXACT_SCORE;
+                    break;
+                }
+                if (word.startsWith(term)) {
+                    best = Math.max(best, Math.max(1, PREFIX_SCORE - (word.length() - term.length())));
+                }
+            }
+            if (best == 0) {
+                return 0;
+            }
+            score += best;
+        }
+        return score;
+    }
+
+    private void unindex(long id, String[] words) {
+        for (String word : words) {
+            postings.computeIfPresent(word, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static String[] indexWords(String... fields) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String field : fields) {
+            if (field == null) {
+                continue;
+            }
+            String[] fieldWords = words(field);
+            Collections.addAll(words, fieldWords);
+            String digits = NOT_DIGIT.matcher(field).replaceAll("");
+            if (fieldWords.length > 1 && !digits.isEmpty()) {
+                words.add(digits);
+            }
+        }
+        return words.toArray(new String[0]);
+    }
+
+    private static String[] words(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        return Arrays.stream(SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(word -> !word.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    private static final class Hit {
+
+        private final long id;
+
+        private final int score;
+
+        private Hit(long id, int score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+}
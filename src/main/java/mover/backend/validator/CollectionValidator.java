@@ -1,23 +1,64 @@
 package mover.backend.validator;
 
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
 import org.springframework.validation.ValidationUtils;
 import org.springframework.validation.Validator;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Spring {@link Validator} that iterates over the elements of a
  * {@link Collection} and run the validation process for each of them
  * individually.
+ * <p>
+ * The errors of an element are reported under its index in iteration order,
+ * for example {@code [3].name}. Collections of at least {@code parallelThreshold}
+ * elements are split into chunks validated by the executor, and no more elements
+ * are validated once {@code maxErrors} errors were found.
  */
 public class CollectionValidator implements Validator {
 
+    private static final int CHUNKS_PER_THREAD = 4;
+
     private final Validator validator;
 
+    private final int maxErrors;
+
+    private final int parallelThreshold;
+
+    private final ExecutorService executor;
+
+    private final int threads;
+
     public CollectionValidator(LocalValidatorFactoryBean validatorFactory) {
-        this.validator = validatorFactory;
+        this(validatorFactory, Integer.MAX_VALUE, Integer.MAX_VALUE, null, 1);
+    }
+
+    /**
+     * @param validator         validator of the elements, shared by the executor threads
+     * @param maxErrors         number of errors after which the remaining elements are skipped
+     * @param parallelThreshold smallest collection validated by the executor
+     * @param executor          executor validating the chunks of big collections
+     * @param threads           number of threads of the executor
+     */
+    public CollectionValidator(Validator validator, int maxErrors, int parallelThreshold,
+                               ExecutorService executor, int threads) {
+        this.validator = validator;
+        this.maxErrors = maxErrors;
+        this.parallelThreshold = parallelThreshold;
+        this.executor = executor;
+        this.threads = threads;
     }
 
     @Override
@@ -34,11 +75,83 @@ public class CollectionValidator implements Validator {
      * @param errors contextual state about the validation process
      */
     @Override
-    @SuppressWarnings("rawtypes")
     public void validate(Object target, Errors errors) {
-        Collection collection = (Collection) target;
-        for (Object object : collection) {
-            ValidationUtils.invokeValidator(validator, object, errors);
+        List<?> elements = new ArrayList<>((Collection<?>) target);
+        Errors[] results = new Errors[elements.size()];
+        AtomicInteger errorCount = new AtomicInteger();
+        if (executor == null || elements.size() < parallelThreshold) {
+            validate(elements, 0, elements.size(), results, errorCount);
+        } else {
+            int chunkSize = (elements.size() + threads * CHUNKS_PER_THREAD - 1) / (threads * CHUNKS_PER_THREAD);
+            List<Future<?>> chunks = new ArrayList<>();
+            for (int from = 0; from < elements.size(); from += chunkSize) {
+                int chunkFrom = from;
+                int chunkTo = Math.min(from + chunkSize, elements.size());
+                chunks.add(executor.submit(() -> validate(elements, chunkFrom, chunkTo, results, errorCount)));
+            }
+            await(chunks);
+        }
+        report(elements, results, errors);
+    }
+
+    private void validate(List<?> elements, int from, int to, Errors[] results, AtomicInteger errorCount) {
+        for (int i = from; i < to && errorCount.get() < maxErrors; i++) {
+            Object element = elements.get(i);
+            Errors elementErrors = new BeanPropertyBindingResult(element, "[" + i + "]");
+            ValidationUtils.invokeValidator(validator, element, elementErrors);
+            if (elementErrors.hasErrors()) {
+                results[i] = elementErrors;
+                errorCount.addAndGet(elementErrors.getErrorCount());
+            }
+        }
+    }
+
+    private static void await(List<Future<?>> chunks) {
+        try {
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (InterruptedException e) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while validating", e);
+        } catch (ExecutionException e) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Could not validate", e.getCause());
+        }
+    }
+
+    /**
+     * Adds the errors of the elements in index order, at most {@code maxErrors} of them.
+     */
+    private void report(List<?> elements, Errors[] results, Errors errors) {
+        int reported = 0;
+        for (int i = 0; i < results.length && reported < maxErrors; i++) {
+            if (results[i] == null) {
+                continue;
+            }
+            for (ObjectError error : results[i].getAllErrors()) {
+                if (reported++ == maxErrors) {
+                    break;
+                }
+                String field = "[" + i + "]";
+                Object rejectedValue = elements.get(i);
+                if (error instanceof FieldError) {
+                    field += "." + ((FieldError) error).getField();
+                    rejectedValue = ((FieldError) error).getRejectedValue();
+                }
+                if (errors instanceof BindingResult) {
+                    BindingResult result = (BindingResult) errors;
+                    result.addError(new FieldError(result.getObjectName(), field, rejectedValue, false,
+                            result.resolveMessageCodes(error.getCode(), field), error.getArguments(),
+                            error.getDefaultMessage()));
+                } else {
+                    errors.rejectValue(field, error.getCode(), error.getArguments(), error.getDefaultMessage());
+                }
+            }
         }
     }
-}
\ No newline at end of file
+}
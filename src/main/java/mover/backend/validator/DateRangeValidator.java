@@ -5,14 +5,32 @@ import org.springframework.util.ReflectionUtils;
 
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 
+/**
+ * Validates that the {@code before} field of an object is less than its {@code after} field.
+ * <p>
+ * The fields are looked up once per validated class and read through cached method handles,
+ * every {@link DateRange} of a type has its own validator and so its own cache.
+ */
 public class DateRangeValidator implements ConstraintValidator<DateRange, Object> {
 
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
     private String before;
     private String after;
     private String message;
 
+    private final ClassValue<MethodHandle[]> getters = new ClassValue<MethodHandle[]>() {
+        @Override
+        protected MethodHandle[] computeValue(Class<?> clazz) {
+            return new MethodHandle[]{getter(clazz, before), getter(clazz, after)};
+        }
+    };
+
     @Override
     public void initialize(DateRange annotation) {
         before = annotation.before();
@@ -23,9 +41,9 @@ public class DateRangeValidator implements ConstraintValidator<DateRange, Object
     @Override
     @SuppressWarnings("unchecked")
     public boolean isValid(Object validated, ConstraintValidatorContext context) {
-        Class<?> clazz = validated.getClass();
-        Comparable beforeValue = (Comparable) getFieldValue(clazz, validated, before);
-        Comparable afterValue = (Comparable) getFieldValue(clazz, validated, after);
+        MethodHandle[] classGetters = getters.get(validated.getClass());
+        Comparable beforeValue = (Comparable) getFieldValue(classGetters[0], validated);
+        Comparable afterValue = (Comparable) getFieldValue(classGetters[1], validated);
         if (beforeValue == null || afterValue == null) {
             return false;
         }
@@ -37,10 +55,27 @@ public class DateRangeValidator implements ConstraintValidator<DateRange, Object
         return true;
     }
 
-    private Object getFieldValue(Class<?> clazz, Object validated, String firstFieldName) {
-        Field field = ReflectionUtils.findField(clazz, firstFieldName);
+    private static MethodHandle getter(Class<?> clazz, String fieldName) {
+        Field field = ReflectionUtils.findField(clazz, fieldName);
+        if (field == null) {
+            throw new IllegalArgumentException("No field " + fieldName + " in " + clazz.getName());
+        }
         field.setAccessible(true);
-        return ReflectionUtils.getField(field, validated);
+        try {
+            return MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Could not access field " + fieldName + " of " + clazz.getName(), e);
+        }
+    }
+
+    private static Object getFieldValue(MethodHandle getter, Object validated) {
+        try {
+            return (Object) getter.invokeExact(validated);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     private void addMessage(ConstraintValidatorContext context, String fieldName, String message) {
@@ -0,0 +1,40 @@
+package mover.backend.validator;
+
+import mover.backend.annotation.DerivableType;
+import mover.backend.model.Address;
+import mover.backend.model.Lead;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+/**
+ * Validates that the type of a lead is set, or can be derived from its distance.
+ * <p>
+ * A lead with the latitude and longitude of both its origin and destination gets its type
+ * from the distance between them when it has none; any other lead must have a type.
+ * The violation is reported on the {@code type} property.
+ */
+public class DerivableTypeValidator implements ConstraintValidator<DerivableType, Lead> {
+
+    private String message;
+
+    @Override
+    public void initialize(DerivableType annotation) {
+        message = annotation.message();
+    }
+
+    @Override
+    public boolean isValid(Lead lead, ConstraintValidatorContext context) {
+        if (lead.getType() != null || hasCoordinates(lead.getOrigin()) && hasCoordinates(lead.getDestination())) {
+            return true;
+        }
+        context.disableDefaultConstraintViolation();
+        context.buildConstraintViolationWithTemplate(message)
+                .addPropertyNode("type").addConstraintViolation();
+        return false;
+    }
+
+    private static boolean hasCoordinates(Address address) {
+        return address != null && address.getLatitude() != null && address.getLongitude() != null;
+    }
+}
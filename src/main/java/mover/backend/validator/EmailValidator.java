@@ -0,0 +1,78 @@
+package mover.backend.validator;
+
+import mover.backend.annotation.Email;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+/**
+ * Validates email addresses in a single pass, accepting exactly what the pattern
+ * {@code [A-z0-9]+(\-[A-z0-9]+|\.[A-z0-9]+|\_[A-z0-9]+)*@[A-z0-9]{2,}(\.[A-z]{2,})+} matches.
+ * <p>
+ * The pattern backtracks exponentially on near misses such as {@code a_a_a_..._a!}, because
+ * {@code _} is both a separator and inside {@code [A-z]}; this validator reads every character once.
+ * Like {@code @Pattern}, {@code null} is valid.
+ */
+public class EmailValidator implements ConstraintValidator<Email, CharSequence> {
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        return value == null || isEmail(value);
+    }
+
+    public static boolean isEmail(CharSequence value) {
+        int length = value.length();
+        int i = 0;
+        // Local part: words joined by single '-' or '.' separators, '_' is a word character
+        int word = 0;
+        for (; i < length && value.charAt(i) != '@'; i++) {
+            char c = value.charAt(i);
+            if (isWordCharacter(c)) {
+                word++;
+            } else if ((c == '-' || c == '.') && word > 0) {
+                word = 0;
+            } else {
+                return false;
+            }
+        }
+        if (word == 0 || i == length) {
+            return false;
+        }
+        // Domain: a label of at least two word characters
+        int label = 0;
+        for (i++; i < length && value.charAt(i) != '.'; i++) {
+            if (!isWordCharacter(value.charAt(i))) {
+                return false;
+            }
+            label++;
+        }
+        if (label < 2 || i == length) {
+            return false;
+        }
+        // Followed by labels of at least two letters
+        while (i < length) {
+            label = 0;
+            for (i++; i < length && value.charAt(i) != '.'; i++) {
+                if (!isLetter(value.charAt(i))) {
+                    return false;
+                }
+                label++;
+            }
+            if (label < 2) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether the character is in {@code [A-z0-9]}, which includes {@code [\]^_`} between the cases.
+     */
+    private static boolean isWordCharacter(char c) {
+        return isLetter(c) || c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+        return c >= 'A' && c <= 'z';
+    }
+}
@@ -0,0 +1,83 @@
+package mover.backend.validator;
+
+import org.hibernate.validator.constraintvalidation.HibernateConstraintValidator;
+import org.hibernate.validator.constraintvalidation.HibernateConstraintValidatorInitializationContext;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+import javax.validation.ConstraintValidatorFactory;
+import javax.validation.metadata.ConstraintDescriptor;
+import java.lang.annotation.Annotation;
+
+/**
+ * {@link ConstraintValidatorFactory} which records every validation of the created validators
+ * in {@link ValidationMetrics}.
+ * <p>
+ * Validators are created once per constraint and cached by the validator factory,
+ * so the wrapping does not cost anything per validation but the two clock reads.
+ */
+public class TimedConstraintValidatorFactory implements ConstraintValidatorFactory {
+
+    private final ConstraintValidatorFactory delegate;
+
+    private final ValidationMetrics metrics;
+
+    public TimedConstraintValidatorFactory(ConstraintValidatorFactory delegate, ValidationMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns a timing wrapper of the validator, which Hibernate Validator only uses
+     * through the {@link ConstraintValidator} interface.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends ConstraintValidator<?, ?>> T getInstance(Class<T> key) {
+        return (T) new TimedConstraintValidator((ConstraintValidator<Annotation, Object>) delegate.getInstance(key));
+    }
+
+    @Override
+    public void releaseInstance(ConstraintValidator<?, ?> instance) {
+        delegate.releaseInstance(instance instanceof TimedConstraintValidator
+                ? ((TimedConstraintValidator) instance).delegate : instance);
+    }
+
+    /**
+     * Implements {@link HibernateConstraintValidator} so the validators which need
+     * its initialization, like the ones of the time constraints, still get it.
+     */
+    private final class TimedConstraintValidator implements HibernateConstraintValidator<Annotation, Object> {
+
+        private final ConstraintValidator<Annotation, Object> delegate;
+
+        private ValidationMetrics.Constraint constraint;
+
+        private TimedConstraintValidator(ConstraintValidator<Annotation, Object> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void initialize(ConstraintDescriptor<Annotation> descriptor,
+                               HibernateConstraintValidatorInitializationContext initializationContext) {
+            if (delegate instanceof HibernateConstraintValidator) {
+                ((HibernateConstraintValidator<Annotation, Object>) delegate).initialize(descriptor, initializationContext);
+            }
+        }
+
+        @Override
+        public void initialize(Annotation annotation) {
+            delegate.initialize(annotation);
+            constraint = metrics.constraint(annotation.annotationType(), delegate.getClass());
+        }
+
+        @Override
+        public boolean isValid(Object value, ConstraintValidatorContext context) {
+            long start = System.nanoTime();
+            boolean valid = delegate.isValid(value, context);
+            constraint.record(System.nanoTime() - start, valid);
+            return valid;
+        }
+    }
+}
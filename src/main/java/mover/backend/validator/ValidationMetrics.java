@@ -0,0 +1,81 @@
+package mover.backend.validator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Number of calls, failures and time spent of every constraint validator.
+ * <p>
+ * A constraint is identified by its annotation and validator, so {@code @NotNull} of
+ * every field is counted together. Recording does not lock.
+ */
+public class ValidationMetrics {
+
+    private final ConcurrentMap<String, Constraint> constraints = new ConcurrentHashMap<>();
+
+    public Constraint constraint(Class<?> annotationType, Class<?> validatorType) {
+        return constraints.computeIfAbsent(annotationType.getName() + '/' + validatorType.getName(),
+                key -> new Constraint(annotationType.getSimpleName(), validatorType.getSimpleName()));
+    }
+
+    public List<Constraint> getConstraints() {
+        return new ArrayList<>(constraints.values());
+    }
+
+    public static final class Constraint {
+
+        private final String annotation;
+
+        private final String validator;
+
+        private final LongAdder calls = new LongAdder();
+
+        private final LongAdder failures = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private Constraint(String annotation, String validator) {
+            this.annotation = annotation;
+            this.validator = validator;
+        }
+
+        public void record(long nanos, boolean valid) {
+            calls.increment();
+            if (!valid) {
+                failures.increment();
+            }
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        public String getAnnotation() {
+            return annotation;
+        }
+
+        public String getValidator() {
+            return validator;
+        }
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+    }
+}
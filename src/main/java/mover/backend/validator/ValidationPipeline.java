@@ -0,0 +1,49 @@
+package mover.backend.validator;
+
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.util.Collection;
+
+/**
+ * The one validator of request bodies, shared by all requests.
+ * <p>
+ * Beans are validated by the Bean Validation provider and the elements of collections
+ * by the {@link CollectionValidator}. The constraint metadata of the given classes is
+ * built up front, so the first request of every type does not pay for it.
+ */
+public class ValidationPipeline implements SmartValidator {
+
+    private final LocalValidatorFactoryBean validator;
+
+    private final CollectionValidator collectionValidator;
+
+    public ValidationPipeline(LocalValidatorFactoryBean validator, CollectionValidator collectionValidator,
+                              Class<?>... classes) {
+        this.validator = validator;
+        this.collectionValidator = collectionValidator;
+        for (Class<?> clazz : classes) {
+            validator.getConstraintsForClass(clazz);
+        }
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return true;
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        validate(target, errors, new Object[0]);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        if (target instanceof Collection) {
+            collectionValidator.validate(target, errors);
+        } else {
+            validator.validate(target, errors, validationHints);
+        }
+    }
+}
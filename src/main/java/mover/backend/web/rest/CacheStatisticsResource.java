@@ -0,0 +1,49 @@
+package mover.backend.web.rest;
+
+import mover.backend.web.rest.vm.CacheStatisticsVM;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * REST controller for reading second-level cache statistics.
+ */
+@RestController
+@CrossOrigin
+@RequestMapping("/api")
+public class CacheStatisticsResource {
+
+    private final Logger log = LoggerFactory.getLogger(CacheStatisticsResource.class);
+
+    private final Statistics statistics;
+
+    @Autowired
+    public CacheStatisticsResource(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * GET  /cache/statistics : Finds the statistics of every second-level cache region.
+     *
+     * @return the ResponseEntity with status 200 (OK) and with body the statistics sorted by region,
+     * all counts are zero while statistics are disabled
+     */
+    @GetMapping("/cache/statistics")
+    public ResponseEntity<List<CacheStatisticsVM>> findCacheStatistics() {
+        log.debug("REST request to get second-level cache statistics");
+        List<CacheStatisticsVM> regions = Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> CacheStatisticsVM.of(region, statistics.getSecondLevelCacheStatistics(region)))
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(regions);
+    }
+}
@@ -1,23 +1,30 @@
 package mover.backend.web.rest;
 
+import mover.backend.config.Constants;
 import mover.backend.model.Customer;
 import mover.backend.model.Employee;
 import mover.backend.model.Lead;
 import mover.backend.repository.CustomerRepository;
 import mover.backend.repository.LeadRepository;
+import mover.backend.service.PersonSearchIndex;
+import mover.backend.web.rest.errors.CustomParameterizedException;
+import mover.backend.web.rest.errors.ErrorConstants;
 import mover.backend.web.rest.util.HeaderUtil;
+import mover.backend.web.rest.util.PaginationUtil;
 import mover.backend.web.rest.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.Collections;
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * REST controller for managing Customer.
@@ -35,22 +42,60 @@ public class CustomerResource {
 
     private final LeadRepository leadRepository;
 
+    private final PersonSearchIndex personSearchIndex;
+
     @Autowired
-    public CustomerResource(CustomerRepository customerRepository, LeadRepository leadRepository) {
+    public CustomerResource(CustomerRepository customerRepository, LeadRepository leadRepository,
+                            PersonSearchIndex personSearchIndex) {
         this.customerRepository = customerRepository;
         this.leadRepository = leadRepository;
+        this.personSearchIndex = personSearchIndex;
     }
 
     /**
-     * GET  /customers : Queries customers from store.
+     * GET  /customers : Queries a page of customers from store.
+     * <p>
+     * Pages are addressed by keyset: pass the cursor from the {@code X-moverApp-next-cursor}
+     * header of the previous page to get the next one.
      *
-     * @return the ResponseEntity with status 200 (OK) and the list of customers in body
+     * @param afterId id of the last customer of the previous page, optional
+     * @param size    page size, at most {@link PaginationUtil#MAX_PAGE_SIZE}
+     * @return the ResponseEntity with status 200 (OK) and the page of customers in body
      */
     @GetMapping("/customers")
-    public Iterable<Customer> queryCustomers() {
-        log.debug("REST request to get all Customers");
-        Iterable<Customer> customers = customerRepository.findAll();
-        return customers;
+    public ResponseEntity<List<Customer>> queryCustomers(@RequestParam(defaultValue = "0") Long afterId,
+                                                         @RequestParam(required = false) Integer size) {
+        log.debug("REST request to get a page of Customers after: {}", afterId);
+        List<Customer> customers = customerRepository.findByIdGreaterThanOrderById(afterId, PaginationUtil.keysetPageable(size));
+        Map<String, Object> cursor = PaginationUtil.trimPage(customers, size)
+                ? Collections.singletonMap("afterId", customers.get(customers.size() - 1).getId())
+                : null;
+        return ResponseEntity.ok()
+                .headers(PaginationUtil.generateKeysetHttpHeaders(cursor))
+                .body(customers);
+    }
+
+    /**
+     * GET  /customers/search?q= : Finds customers by the beginnings of the words of their names, emails and phones.
+     * <p>
+     * Every word of the query must start a word of the customer, exact words rank first, then the shortest ones.
+     * The digits of a phone also match without separators.
+     *
+     * @param q    the words to search, for example {@code jo smi} or {@code 555-12}
+     * @param size maximal number of customers, at most {@link PaginationUtil#MAX_PAGE_SIZE}
+     * @return the ResponseEntity with status 200 (OK) and the customers in body, best match first
+     */
+    @GetMapping("/customers/search")
+    public ResponseEntity<List<Customer>> searchCustomers(@RequestParam String q,
+                                                         @RequestParam(required = false) Integer size) {
+        log.debug("REST request to search Customers : {}", q);
+        List<Long> ids = personSearchIndex.searchCustomers(q, PaginationUtil.pageSize(size));
+        Map<Long, Customer> customers = new HashMap<>();
+        customerRepository.findAllById(ids).forEach(customer -> customers.put(customer.getId(), customer));
+        return ResponseEntity.ok(ids.stream()
+                .map(customers::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
     }
 
     /**
@@ -70,6 +115,7 @@ public class CustomerResource {
                     .build();
         }
         Customer result = customerRepository.save(customer);
+        personSearchIndex.putCustomer(result);
         return ResponseEntity.created(new URI("/api/customers/" + result.getId()))
                 .headers(HeaderUtil.createEntityCreationAlert(ENTITY_NAME, result.getId().toString()))
                 .body(result);
@@ -77,37 +123,55 @@ public class CustomerResource {
 
     /**
      * PUT  /customers : Updates customer in store.
+     * <p>
+     * The customer is read through the second-level cache and written by a single versioned statement,
+     * conditional on the version of the {@code If-Match} ETag, or else on the version in the body.
+     * Without either the last write wins.
      *
      * @param customer the customer to update
-     * @return the ResponseEntity with status 200 (OK),
+     * @param ifMatch ETag of the version of the customer the client updates, optional
+     * @return the ResponseEntity with status 200 (OK) and the ETag of the new version if the expected version is known,
      * or with status 400 (Bad Request) if the customer is not valid,
-     * or with status 404 (Not Found) if there is no customer with this ID
+     * or with status 404 (Not Found) if there is no customer with this ID,
+     * or with status 409 (Conflict) if the customer has another version
      * @throws URISyntaxException if the Location URI syntax is incorrect
      */
     @PutMapping("/customers")
-    public ResponseEntity<Customer> updateCustomer(@Valid @RequestBody Customer customer) throws URISyntaxException {
+    public ResponseEntity<Customer> updateCustomer(@Valid @RequestBody Customer customer,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update Customer : {}", customer);
-        if (customer.getId() != null && customerRepository.existsById(customer.getId())) {
-            customerRepository.save(customer);
-            return ResponseEntity.ok()
-                    .headers(HeaderUtil.createEntityUpdateAlert(ENTITY_NAME, customer.getId().toString()))
-                    .build();
+        if (customer.getId() == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Long version = ResponseUtil.expectedVersion(ifMatch, customer.getVersion(), ENTITY_NAME, customer.getId());
+        Optional<Long> updated = customerRepository.updateIfVersion(customer, version);
+        if (!updated.isPresent()) {
+            return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.notFound().build();
+        personSearchIndex.putCustomer(customer);
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(ENTITY_NAME, customer.getId().toString());
+        if (version != null) {
+            headers.setETag(ResponseUtil.eTag(ENTITY_NAME, customer.getId(), updated.get()));
+        }
+        return ResponseEntity.ok().headers(headers).build();
     }
 
     /**
      * GET  /customers/:id : Finds customer in store by ID.
      *
      * @param id the ID of the customer to return
+     * @param ifNoneMatch ETag of the version of the customer the client has, optional
      * @return the ResponseEntity with status 200 (OK) and with body the customer,
+     * or with status 304 (Not Modified) if the customer still has the version of the ETag,
      * or with status 404 (Not Found) if there is no customer with this ID
      */
     @GetMapping("/customers/{id}")
-    public ResponseEntity<Customer> findCustomer(@PathVariable Long id) {
+    public ResponseEntity<Customer> findCustomer(@PathVariable Long id,
+                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("REST request to get Customer : {}", id);
-        Optional<Customer> customer = customerRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(customer);
+        Optional<String> eTag = customerRepository.findVersionById(id)
+                .map(version -> ResponseUtil.eTag(ENTITY_NAME, id, version));
+        return ResponseUtil.wrapOrNotFound(eTag, ifNoneMatch, () -> customerRepository.findById(id));
     }
 
     /**
@@ -117,15 +181,13 @@ public class CustomerResource {
      * @return the ResponseEntity with status 200 (OK)
      */
     @DeleteMapping("/customers/{id}")
+    @Transactional
     public ResponseEntity<Void> deleteCustomer(@PathVariable Long id) {
         log.debug("REST request to delete Customer : {}", id);
         if (id != null) {
-            customerRepository.findById(id)
-                    .ifPresent(customer -> {
-                        customer.getLeads().forEach(lead -> lead.setCustomer(null));
-                        customer.setLeads(Collections.emptySet());
-                        customerRepository.delete(customer);
-                    });
+            customerRepository.unlinkLeadsById(id);
+            customerRepository.deleteUnlinkedById(id);
+            personSearchIndex.removeCustomer(id);
         }
         return ResponseEntity.ok()
                 .headers(HeaderUtil.createEntityDeletionAlert(ENTITY_NAME, id.toString()))
@@ -149,6 +211,32 @@ public class CustomerResource {
         return ResponseUtil.wrapOrNotFound(leads);
     }
 
+    /**
+     * PUT  /customers/:id/leads : Links leads to the customer in store.
+     * <p>
+     * The leads are linked with a single foreign-key write, without loading the customer or the leads.
+     *
+     * @param id the ID of the customer to connect
+     * @param leadIds the IDs of the leads to connect, unknown IDs are ignored
+     * @return the ResponseEntity with status 200 (OK) and with body the number of newly linked leads,
+     * or with status 400 (Bad Request) if there are more than {@link Constants#MAX_BATCH_SIZE} leads,
+     * or with status 404 (Not Found) if there is no customer with this ID
+     */
+    @PutMapping("/customers/{id}/leads")
+    public ResponseEntity<Integer> updateConnectionLeadsByCustomerId(@PathVariable Long id, @RequestBody List<Long> leadIds) {
+        log.debug("REST request to update Customer - Leads connection: {} - {}", id, leadIds);
+        if (leadIds.size() > Constants.MAX_BATCH_SIZE) {
+            throw new CustomParameterizedException(ErrorConstants.ERR_BATCH_TOO_LARGE, String.valueOf(Constants.MAX_BATCH_SIZE));
+        }
+        int linked = customerRepository.linkLeadsById(id, leadIds);
+        if (linked == 0 && !customerRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .headers(HeaderUtil.createConnectionEntityAlert(ENTITY_NAME, String.valueOf(linked)))
+                .body(linked);
+    }
+
     /**
      * PUT  /customers/{customerId}/leads/{leadId} : Updates connection lead in store by customer ID.
      *
@@ -160,17 +248,10 @@ public class CustomerResource {
     @PutMapping("/customers/{customerId}/leads/{leadId}")
     public ResponseEntity<Customer> updateConnectionLeadByCustomerId(@PathVariable Long customerId, @PathVariable Long leadId) {
         log.debug("REST request to update Customer - Lead connection: {} - {}", customerId, leadId);
-        final boolean[] connected = {false};
-        customerRepository.findById(customerId).ifPresent(customer -> {
-            leadRepository.findById(leadId).ifPresent(lead -> {
-                lead.setCustomer(customer);
-                customer.getLeads().add(lead);
-                leadRepository.save(lead);
-                customerRepository.save(customer);
-                connected[0] = true;
-            });
-        });
-        return connected[0]
+        // Nothing is written if the lead already belongs to the customer
+        boolean connected = customerRepository.linkLeadsById(customerId, Collections.singleton(leadId)) > 0
+                || customerRepository.existsById(customerId) && leadRepository.existsById(leadId);
+        return connected
                 ? ResponseEntity.ok()
                         .headers(HeaderUtil.createConnectionEntityAlert(ENTITY_NAME, leadId.toString()))
                         .build()
@@ -188,17 +269,9 @@ public class CustomerResource {
     @DeleteMapping("/customers/{customerId}/leads/{leadId}")
     public ResponseEntity<Employee> deleteConnectionLeadBCustomerId(@PathVariable Long customerId, @PathVariable Long leadId) {
         log.debug("REST request to delete Employee - Lead connection: {} - {}", customerId, leadId);
-        customerRepository.findById(customerId).ifPresent(customer -> {
-            leadRepository.findById(leadId).ifPresent(lead -> {
-                lead.setCustomer(null);
-                customer.getLeads().remove(lead);
-                leadRepository.save(lead);
-                customerRepository.save(customer);
-            });
-        });
+        customerRepository.unlinkLeadById(customerId, leadId);
         return ResponseEntity.ok()
                 .headers(HeaderUtil.deleteConnectionEntityAlert(ENTITY_NAME, leadId.toString()))
                 .build();
     }
 }
-
@@ -1,22 +1,32 @@
 package mover.backend.web.rest;
 
+import mover.backend.config.Constants;
 import mover.backend.model.Employee;
 import mover.backend.model.Lead;
 import mover.backend.repository.EmployeeRepository;
 import mover.backend.repository.LeadRepository;
+import mover.backend.service.EmployeeAssignmentService;
+import mover.backend.service.EmployeeAvailabilityIndex;
+import mover.backend.service.PersonSearchIndex;
+import mover.backend.web.rest.errors.CustomParameterizedException;
+import mover.backend.web.rest.errors.ErrorConstants;
 import mover.backend.web.rest.util.HeaderUtil;
+import mover.backend.web.rest.util.PaginationUtil;
 import mover.backend.web.rest.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.Collections;
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * REST controller for managing Employee.
@@ -34,22 +44,68 @@ public class EmployeeResource {
 
     private final LeadRepository leadRepository;
 
+    private final EmployeeAvailabilityIndex employeeAvailabilityIndex;
+
+    private final EmployeeAssignmentService employeeAssignmentService;
+
+    private final PersonSearchIndex personSearchIndex;
+
     @Autowired
-    public EmployeeResource(EmployeeRepository employeeRepository, LeadRepository leadRepository) {
+    public EmployeeResource(EmployeeRepository employeeRepository, LeadRepository leadRepository,
+                            EmployeeAvailabilityIndex employeeAvailabilityIndex,
+                            EmployeeAssignmentService employeeAssignmentService,
+                            PersonSearchIndex personSearchIndex) {
         this.employeeRepository = employeeRepository;
         this.leadRepository = leadRepository;
+        this.employeeAvailabilityIndex = employeeAvailabilityIndex;
+        this.employeeAssignmentService = employeeAssignmentService;
+        this.personSearchIndex = personSearchIndex;
     }
 
     /**
-     * GET  /employees : Queries employees from store.
+     * GET  /employees : Queries a page of employees from store.
+     * <p>
+     * Pages are addressed by keyset: pass the cursor from the {@code X-moverApp-next-cursor}
+     * header of the previous page to get the next one.
      *
-     * @return the ResponseEntity with status 200 (OK) and the list of employees in body
+     * @param afterId id of the last employee of the previous page, optional
+     * @param size    page size, at most {@link PaginationUtil#MAX_PAGE_SIZE}
+     * @return the ResponseEntity with status 200 (OK) and the page of employees in body
      */
     @GetMapping("/employees")
-    public Iterable<Employee> queryEmployees() {
-        log.debug("REST request to get all Employees");
-        Iterable<Employee> employees = employeeRepository.findAll();
-        return employees;
+    public ResponseEntity<List<Employee>> queryEmployees(@RequestParam(defaultValue = "0") Long afterId,
+                                                         @RequestParam(required = false) Integer size) {
+        log.debug("REST request to get a page of Employees after: {}", afterId);
+        List<Employee> employees = employeeRepository.findByIdGreaterThanOrderById(afterId, PaginationUtil.keysetPageable(size));
+        Map<String, Object> cursor = PaginationUtil.trimPage(employees, size)
+                ? Collections.singletonMap("afterId", employees.get(employees.size() - 1).getId())
+                : null;
+        return ResponseEntity.ok()
+                .headers(PaginationUtil.generateKeysetHttpHeaders(cursor))
+                .body(employees);
+    }
+
+    /**
+     * GET  /employees/search?q= : Finds employees by the beginnings of the words of their names, emails and phones.
+     * <p>
+     * Every word of the query must start a word of the employee, exact words rank first, then the shortest ones.
+     * The digits of a phone also match without separators.
+     *
+     * @param q    the words to search, for example {@code jo smi} or {@code 555-12}
+     * @param size maximal number of employees, at most {@link PaginationUtil#MAX_PAGE_SIZE}
+     * @return the ResponseEntity with status 200 (OK) and the employees in body, best match first
+     */
+    @GetMapping("/employees/search")
+    public ResponseEntity<List<Employee>> searchEmployees(@RequestParam String q,
+                                                         @RequestParam(required = false) Integer size) {
+        log.debug("REST request to search Employees : {}", q);
+        List<Long> ids = personSearchIndex.searchEmployees(q, PaginationUtil.pageSize(size));
+        Map<Long, Employee> employees = new HashMap<>();
+        employeeRepository.findAllById(ids).forEach(employee -> employees.put(employee.getId(), employee));
+        return ResponseEntity.ok(ids.stream()
+                .map(employees::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
     }
 
     /**
@@ -69,6 +125,8 @@ public class EmployeeResource {
                     .build();
         }
         Employee result = employeeRepository.save(employee);
+        employeeAvailabilityIndex.putEmployee(result.getId());
+        personSearchIndex.putEmployee(result);
         return ResponseEntity.created(new URI("/api/employees/" + result.getId()))
                 .headers(HeaderUtil.createEntityCreationAlert(ENTITY_NAME, result.getId().toString()))
                 .body(result);
@@ -76,37 +134,82 @@ public class EmployeeResource {
 
     /**
      * PUT  /employees : Updates employee in store.
+     * <p>
+     * The employee is read through the second-level cache and written by a single versioned statement,
+     * conditional on the version of the {@code If-Match} ETag, or else on the version in the body.
+     * Without either the last write wins.
      *
      * @param employee the employee to update
-     * @return the ResponseEntity with status 200 (OK),
+     * @param ifMatch ETag of the version of the employee the client updates, optional
+     * @return the ResponseEntity with status 200 (OK) and the ETag of the new version if the expected version is known,
      * or with status 400 (Bad Request) if the employee is not valid,
-     * or with status 404 (Not Found) if there is no employee with this ID
+     * or with status 404 (Not Found) if there is no employee with this ID,
+     * or with status 409 (Conflict) if the employee has another version
      * @throws URISyntaxException if the Location URI syntax is incorrect
      */
     @PutMapping("/employees")
-    public ResponseEntity<Employee> updateEmployee(@Valid @RequestBody Employee employee) throws URISyntaxException {
+    public ResponseEntity<Employee> updateEmployee(@Valid @RequestBody Employee employee,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update Employee : {}", employee);
-        if (employee.getId() != null && employeeRepository.existsById(employee.getId())) {
-            employeeRepository.save(employee);
-            return ResponseEntity.ok()
-                    .headers(HeaderUtil.createEntityUpdateAlert(ENTITY_NAME, employee.getId().toString()))
-                    .build();
+        if (employee.getId() == null) {
+            return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.notFound().build();
+        Long version = ResponseUtil.expectedVersion(ifMatch, employee.getVersion(), ENTITY_NAME, employee.getId());
+        Optional<Long> updated = employeeRepository.updateIfVersion(employee, version);
+        if (!updated.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        personSearchIndex.putEmployee(employee);
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(ENTITY_NAME, employee.getId().toString());
+        if (version != null) {
+            headers.setETag(ResponseUtil.eTag(ENTITY_NAME, employee.getId(), updated.get()));
+        }
+        return ResponseEntity.ok().headers(headers).build();
     }
 
     /**
      * GET  /employees/:id : Finds employee in store by ID.
      *
      * @param id the ID of the employee to return
+     * @param ifNoneMatch ETag of the version of the employee the client has, optional
      * @return the ResponseEntity with status 200 (OK) and with body the employee,
+     * or with status 304 (Not Modified) if the employee still has the version of the ETag,
      * or with status 404 (Not Found) if there is no employee with this ID
      */
     @GetMapping("/employees/{id}")
-    public ResponseEntity<Employee> findEmployee(@PathVariable Long id) {
+    public ResponseEntity<Employee> findEmployee(@PathVariable Long id,
+                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("REST request to get Employee : {}", id);
-        Optional<Employee> employee = employeeRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(employee);
+        Optional<String> eTag = employeeRepository.findVersionById(id)
+                .map(version -> ResponseUtil.eTag(ENTITY_NAME, id, version));
+        return ResponseUtil.wrapOrNotFound(eTag, ifNoneMatch, () -> employeeRepository.findById(id));
+    }
+
+    /**
+     * GET  /employees/available : Finds employees who have no leads between the times.
+     * <p>
+     * Leads which end when the window starts, or start when it ends, do not make an employee busy.
+     *
+     * @param from start of the time window
+     * @param to   end of the time window
+     * @return the ResponseEntity with status 200 (OK) and the free employees ordered by ID,
+     * or with status 400 (Bad Request) if the window ends before it starts
+     */
+    @GetMapping("/employees/available")
+    public ResponseEntity<List<Employee>> findAvailableEmployees(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("REST request to get Employees available between: {} - {}", from, to);
+        if (to.isBefore(from)) {
+            throw new CustomParameterizedException(ErrorConstants.ERR_VALIDATION, "to");
+        }
+        List<Long> ids = employeeAvailabilityIndex.findAvailable(from, to);
+        Map<Long, Employee> employees = new HashMap<>();
+        employeeRepository.findAllById(ids).forEach(employee -> employees.put(employee.getId(), employee));
+        return ResponseEntity.ok(ids.stream()
+                .map(employees::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
     }
 
     /**
@@ -119,12 +222,9 @@ public class EmployeeResource {
     public ResponseEntity<Void> deleteEmployee(@PathVariable Long id) {
         log.debug("REST request to delete Employee : {}", id);
         if (id != null) {
-            employeeRepository.findById(id)
-                    .ifPresent(employee -> {
-                        employee.getLeads().forEach(lead -> lead.getAssignedTos().remove(employee));
-                        employee.setLeads(Collections.emptySet());
-                        employeeRepository.delete(employee);
-                    });
+            employeeRepository.deleteWithAssignmentsById(id);
+            employeeAvailabilityIndex.removeEmployee(id);
+            personSearchIndex.removeEmployee(id);
         }
         return ResponseEntity.ok()
                 .headers(HeaderUtil.createEntityDeletionAlert(ENTITY_NAME, id.toString()))
@@ -148,28 +248,50 @@ public class EmployeeResource {
         return ResponseUtil.wrapOrNotFound(leads);
     }
 
+    /**
+     * PUT  /employees/:id/leads : Assigns leads to the employee in store.
+     * <p>
+     * The leads are assigned with a single join-table insert, without loading the employee or the leads.
+     * The other assignments of the employee are kept.
+     *
+     * @param id the ID of the employee to connect
+     * @param leadIds the IDs of the leads to connect, unknown IDs are ignored
+     * @return the ResponseEntity with status 200 (OK) and with body the number of newly assigned leads,
+     * or with status 400 (Bad Request) if there are more than {@link Constants#MAX_BATCH_SIZE} leads,
+     * or with status 404 (Not Found) if there is no employee with this ID,
+     * or with status 409 (Conflict) if a lead overlaps another lead of the employee, then no lead is assigned
+     */
+    @PutMapping("/employees/{id}/leads")
+    public ResponseEntity<Integer> updateConnectionLeadsByEmployeeId(@PathVariable Long id, @RequestBody List<Long> leadIds) {
+        log.debug("REST request to update Employee - Leads connection: {} - {}", id, leadIds);
+        if (leadIds.size() > Constants.MAX_BATCH_SIZE) {
+            throw new CustomParameterizedException(ErrorConstants.ERR_BATCH_TOO_LARGE, String.valueOf(Constants.MAX_BATCH_SIZE));
+        }
+        int assigned = employeeAssignmentService.assign(id, leadIds);
+        if (assigned == 0 && !employeeRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .headers(HeaderUtil.createConnectionEntityAlert(ENTITY_NAME, String.valueOf(assigned)))
+                .body(assigned);
+    }
+
     /**
      * PUT  /employees/{employeeId}/leads/{leadId} : Updates connection lead in store by employee ID.
      *
      * @param employeeId the ID of the employee to connect
      * @param leadId the ID of the lead to connect
      * @return the ResponseEntity with status 200 (OK),
-     * or with status 404 (Not Found) if there is no employee or lead with these IDs
+     * or with status 404 (Not Found) if there is no employee or lead with these IDs,
+     * or with status 409 (Conflict) if the lead overlaps another lead of the employee
      */
     @PutMapping("/employees/{employeeId}/leads/{leadId}")
     public ResponseEntity<Employee> updateConnectionLeadByEmployeeId(@PathVariable Long employeeId, @PathVariable Long leadId) {
         log.debug("REST request to update Employee - Lead connection: {} - {}", employeeId, leadId);
-        final boolean[] connected = {false};
-        employeeRepository.findById(employeeId).ifPresent(employee -> {
-            leadRepository.findById(leadId).ifPresent(lead -> {
-                lead.getAssignedTos().add(employee);
-                employee.getLeads().add(lead);
-                leadRepository.save(lead);
-                employeeRepository.save(employee);
-                connected[0] = true;
-            });
-        });
-        return connected[0]
+        // Nothing is written if the lead is already assigned to the employee
+        boolean connected = employeeAssignmentService.assign(employeeId, Collections.singleton(leadId)) > 0
+                || employeeRepository.existsById(employeeId) && leadRepository.existsById(leadId);
+        return connected
                 ? ResponseEntity.ok()
                         .headers(HeaderUtil.createConnectionEntityAlert(ENTITY_NAME, leadId.toString()))
                         .build()
@@ -187,17 +309,9 @@ public class EmployeeResource {
     @DeleteMapping("/employees/{employeeId}/leads/{leadId}")
     public ResponseEntity<Employee> deleteConnectionLeadByEmployeeId(@PathVariable Long employeeId, @PathVariable Long leadId) {
         log.debug("REST request to delete Employee - Lead connection: {} - {}", employeeId, leadId);
-        employeeRepository.findById(employeeId).ifPresent(employee -> {
-            leadRepository.findById(leadId).ifPresent(lead -> {
-                lead.getAssignedTos().remove(employee);
-                employee.getLeads().remove(lead);
-                leadRepository.save(lead);
-                employeeRepository.save(employee);
-            });
-        });
+        employeeAssignmentService.unassign(employeeId, leadId);
         return ResponseEntity.ok()
                 .headers(HeaderUtil.deleteConnectionEntityAlert(ENTITY_NAME, leadId.toString()))
                 .build();
     }
 }
-
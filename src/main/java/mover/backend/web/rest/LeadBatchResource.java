@@ -0,0 +1,333 @@
+package mover.backend.web.rest;
+
+import mover.backend.config.Constants;
+import mover.backend.model.Lead;
+import mover.backend.model.enumeration.Status;
+import mover.backend.repository.LeadRepository;
+import mover.backend.service.EmployeeAssignmentService;
+import mover.backend.service.EmployeeAvailabilityIndex;
+import mover.backend.service.LeadDistanceService;
+import mover.backend.service.LeadSpatialIndex;
+import mover.backend.service.LeadStatistics;
+import mover.backend.web.rest.errors.CustomParameterizedException;
+import mover.backend.web.rest.errors.ErrorConstants;
+import mover.backend.web.rest.errors.FieldErrorVM;
+import mover.backend.web.rest.util.HeaderUtil;
+import mover.backend.web.rest.vm.LeadBatchResultVM;
+import mover.backend.web.rest.vm.LeadBatchResultVM.Outcome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.*;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * REST controller for creating, updating and deleting Leads in bulk.
+ * <p>
+ * Every lead is validated on its own and gets its own outcome. Valid leads are
+ * written in chunks of the JDBC batch size, each chunk in its own transaction,
+ * so one failing chunk does not roll back the others. Leads are deleted in
+ * chunks of the same size.
+ */
+@RestController
+@CrossOrigin
+@RequestMapping("/api")
+public class LeadBatchResource {
+
+    private final Logger log = LoggerFactory.getLogger(LeadBatchResource.class);
+
+    private static final String ENTITY_NAME = "lead";
+
+    private final LeadRepository leadRepository;
+
+    private final LeadSpatialIndex leadSpatialIndex;
+
+    private final EmployeeAvailabilityIndex employeeAvailabilityIndex;
+
+    private final EmployeeAssignmentService employeeAssignmentService;
+
+    private final LeadDistanceService leadDistanceService;
+
+    private final LeadStatistics leadStatistics;
+
+    private final EntityManager entityManager;
+
+    private final Validator validator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+
+    @Autowired
+    public LeadBatchResource(LeadRepository leadRepository,
+                             LeadSpatialIndex leadSpatialIndex,
+                             EmployeeAvailabilityIndex employeeAvailabilityIndex,
+                             EmployeeAssignmentService employeeAssignmentService,
+                             LeadDistanceService leadDistanceService,
+                             LeadStatistics leadStatistics,
+                             EntityManager entityManager,
+                             Validator validator,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int chunkSize) {
+        this.leadRepository = leadRepository;
+        this.leadSpatialIndex = leadSpatialIndex;
+        this.employeeAvailabilityIndex = employeeAvailabilityIndex;
+        this.employeeAssignmentService = employeeAssignmentService;
+        this.leadDistanceService = leadDistanceService;
+        this.leadStatistics = leadStatistics;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * POST  /leads/batch : Creates leads in store.
+     *
+     * @param leads the leads to create
+     * @return the ResponseEntity with status 200 (OK) and with body the outcome of every lead,
+     * or with status 400 (Bad Request) if there are more than {@link Constants#MAX_BATCH_SIZE} leads
+     */
+    @PostMapping("/leads/batch")
+    public ResponseEntity<List<LeadBatchResultVM>> createLeads(@RequestBody List<Lead> leads) {
+        log.debug("REST request to save {} Leads", leads.size());
+        List<LeadBatchResultVM> results = validate(leads, Outcome.CREATED);
+        for (List<LeadBatchResultVM> chunk : chunks(results)) {
+            writeChunk(chunk, () -> {
+                for (LeadBatchResultVM result : chunk) {
+                    entityManager.persist(leadDistanceService.classify(leads.get(result.getIndex())));
+                }
+            });
+            for (LeadBatchResultVM result : chunk) {
+                Lead lead = leads.get(result.getIndex());
+                if (result.getOutcome() == Outcome.CREATED) {
+                    result.setId(lead.getId());
+                    leadSpatialIndex.put(lead);
+                    leadStatistics.put(lead);
+                }
+            }
+        }
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * PUT  /leads/batch : Updates leads in store.
+     * <p>
+     * Only the fields of the leads are updated, their estimates, inventories,
+     * customer and employees are kept. A lead with a version other than the stored
+     * one, or which would move onto another lead of one of its employees, is not
+     * updated and has the outcome CONFLICT. A lead without a version is updated
+     * whatever its stored version.
+     *
+     * @param leads the leads to update
+     * @return the ResponseEntity with status 200 (OK) and with body the outcome of every lead,
+     * or with status 400 (Bad Request) if there are more than {@link Constants#MAX_BATCH_SIZE} leads
+     */
+    @PutMapping("/leads/batch")
+    public ResponseEntity<List<LeadBatchResultVM>> updateLeads(@RequestBody List<Lead> leads) {
+        log.debug("REST request to update {} Leads", leads.size());
+        List<LeadBatchResultVM> results = validate(leads, Outcome.UPDATED);
+        for (List<LeadBatchResultVM> chunk : chunks(results)) {
+            List<Lead> updates = chunk.stream()
+                    .map(result -> leadDistanceService.classify(leads.get(result.getIndex())))
+                    .collect(Collectors.toList());
+            Set<Lead> moved = Collections.newSetFromMap(new IdentityHashMap<>());
+            employeeAssignmentService.move(updates, moving -> {
+                moved.addAll(moving);
+                List<LeadBatchResultVM> writing = chunk.stream()
+                        .filter(result -> moved.contains(leads.get(result.getIndex())))
+                        .collect(Collectors.toList());
+                writeChunk(writing, () -> {
+                    Map<Long, Lead> existing = new HashMap<>();
+                    leadRepository.findAllById(writing.stream()
+                            .map(LeadBatchResultVM::getId)
+                            .collect(Collectors.toList()))
+                            .forEach(lead -> existing.put(lead.getId(), lead));
+                    for (LeadBatchResultVM result : writing) {
+                        Lead managed = existing.get(result.getId());
+                        Long version = leads.get(result.getIndex()).getVersion();
+                        if (managed == null) {
+                            result.setOutcome(Outcome.NOT_FOUND);
+                        } else if (version != null && !version.equals(managed.getVersion())) {
+                            result.setOutcome(Outcome.CONFLICT);
+                        } else {
+                            copyFields(leads.get(result.getIndex()), managed);
+                        }
+                    }
+                });
+                return writing.stream()
+                        .filter(result -> result.getOutcome() == Outcome.UPDATED)
+                        .map(result -> leads.get(result.getIndex()))
+                        .collect(Collectors.toList());
+            });
+            for (LeadBatchResultVM result : chunk) {
+                Lead lead = leads.get(result.getIndex());
+                if (!moved.contains(lead)) {
+                    result.setOutcome(Outcome.CONFLICT);
+                } else if (result.getOutcome() == Outcome.UPDATED) {
+                    leadSpatialIndex.put(lead);
+                    leadStatistics.put(lead);
+                }
+            }
+        }
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * DELETE  /leads?ids= : Deletes leads in store by IDs.
+     *
+     * @param ids the IDs of the leads to delete, unknown IDs are ignored
+     * @return the ResponseEntity with status 200 (OK) and with body the number of deleted leads,
+     * or with status 400 (Bad Request) if there are more than {@link Constants#MAX_BATCH_SIZE} IDs
+     */
+    @DeleteMapping(value = "/leads", params = "ids")
+    public ResponseEntity<Integer> deleteLeads(@RequestParam List<Long> ids) {
+        log.debug("REST request to delete {} Leads", ids.size());
+        if (ids.size() > Constants.MAX_BATCH_SIZE) {
+            throw new CustomParameterizedException(ErrorConstants.ERR_BATCH_TOO_LARGE, String.valueOf(Constants.MAX_BATCH_SIZE));
+        }
+        int deleted = 0;
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            deleted += deleteChunk(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+        }
+        return ResponseEntity.ok()
+                .headers(HeaderUtil.createEntityDeletionAlert(ENTITY_NAME, String.valueOf(deleted)))
+                .body(deleted);
+    }
+
+    /**
+     * DELETE  /leads?status=&olderThanDays= : Deletes the leads with the status which ended more than the days ago.
+     *
+     * @param status        the status of the leads to delete, for example CLOSED
+     * @param olderThanDays the number of days since the leads ended
+     * @return the ResponseEntity with status 200 (OK) and with body the number of deleted leads,
+     * or with status 400 (Bad Request) if the number of days is negative
+     */
+    @DeleteMapping(value = "/leads", params = {"status", "olderThanDays"})
+    public ResponseEntity<Integer> deleteLeadsByFilter(@RequestParam Status status, @RequestParam int olderThanDays) {
+        log.debug("REST request to delete {} Leads older than {} days", status, olderThanDays);
+        if (olderThanDays < 0) {
+            throw new CustomParameterizedException(ErrorConstants.ERR_VALIDATION, "olderThanDays");
+        }
+        LocalDateTime before = LocalDateTime.now().minusDays(olderThanDays);
+        int deleted = 0;
+        Long afterId = 0L;
+        List<Long> ids;
+        do {
+            ids = leadRepository.findIdsByStatusAndEndBefore(afterId, status, before, PageRequest.of(0, chunkSize));
+            if (!ids.isEmpty()) {
+                deleted += deleteChunk(ids);
+                afterId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == chunkSize);
+        return ResponseEntity.ok()
+                .headers(HeaderUtil.createEntityDeletionAlert(ENTITY_NAME, String.valueOf(deleted)))
+                .body(deleted);
+    }
+
+    /**
+     * Validates every lead. A lead to create must not have an ID, a lead to update must have one.
+     *
+     * @return the outcome of every lead, {@code success} for the leads to write
+     */
+    private List<LeadBatchResultVM> validate(List<Lead> leads, Outcome success) {
+        if (leads.size() > Constants.MAX_BATCH_SIZE) {
+            throw new CustomParameterizedException(ErrorConstants.ERR_BATCH_TOO_LARGE, String.valueOf(Constants.MAX_BATCH_SIZE));
+        }
+        List<LeadBatchResultVM> results = new ArrayList<>(leads.size());
+        for (int index = 0; index < leads.size(); index++) {
+            Lead lead = leads.get(index);
+            boolean create = success == Outcome.CREATED;
+            if (create == (lead.getId() != null)) {
+                results.add(new LeadBatchResultVM(index, lead.getId(),
+                        create ? Outcome.ID_EXISTS : Outcome.NOT_FOUND, null));
+                continue;
+            }
+            Set<ConstraintViolation<Lead>> violations = validator.validate(lead);
+            if (violations.isEmpty()) {
+                results.add(new LeadBatchResultVM(index, lead.getId(), success, null));
+            } else {
+                results.add(new LeadBatchResultVM(index, lead.getId(), Outcome.INVALID, violations.stream()
+                        .map(violation -> new FieldErrorVM(ENTITY_NAME, violation.getPropertyPath().toString(),
+                                violation.getConstraintDescriptor().getAnnotation().annotationType().getSimpleName()))
+                        .collect(Collectors.toList())));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Splits the results of the leads to write into chunks of the JDBC batch size.
+     */
+    private List<List<LeadBatchResultVM>> chunks(List<LeadBatchResultVM> results) {
+        Set<Outcome> writable = EnumSet.of(Outcome.CREATED, Outcome.UPDATED);
+        List<LeadBatchResultVM> pending = results.stream()
+                .filter(result -> writable.contains(result.getOutcome()))
+                .collect(Collectors.toList());
+        List<List<LeadBatchResultVM>> chunks = new ArrayList<>();
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            chunks.add(pending.subList(from, Math.min(from + chunkSize, pending.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Runs the writes of a chunk in a transaction and flushes them as JDBC batches.
+     * If the transaction fails, every lead of the chunk is marked as failed.
+     */
+    private void writeChunk(List<LeadBatchResultVM> chunk, Runnable writes) {
+        try {
+            transactionTemplate.execute(status -> {
+                writes.run();
+                entityManager.flush();
+                entityManager.clear();
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to write a chunk of {} Leads: {}", chunk.size(), e.getMessage());
+            chunk.forEach(result -> result.setOutcome(Outcome.FAILED));
+        }
+    }
+
+    /**
+     * Deletes the leads of a chunk in a transaction and removes them from the spatial index.
+     * If the transaction fails, none of the leads of the chunk is deleted.
+     *
+     * @return the number of deleted leads
+     */
+    private int deleteChunk(List<Long> ids) {
+        try {
+            Integer deleted = transactionTemplate.execute(status -> leadRepository.deleteAllByIdIn(ids));
+            ids.forEach(id -> {
+                leadSpatialIndex.remove(id);
+                employeeAvailabilityIndex.removeLead(id);
+                leadStatistics.remove(id);
+            });
+            return deleted;
+        } catch (RuntimeException e) {
+            log.warn("Failed to delete a chunk of {} Leads: {}", ids.size(), e.getMessage());
+            return 0;
+        }
+    }
+
+    private static void copyFields(Lead source, Lead target) {
+        target.setStart(source.getStart())
+                .setEnd(source.getEnd())
+                .setType(source.getType())
+                .setStatus(source.getStatus())
+                .setOrigin(source.getOrigin())
+                .setDestination(source.getDestination())
+                .setDistanceKm(source.getDistanceKm());
+    }
+}
@@ -0,0 +1,101 @@
+package mover.backend.web.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import mover.backend.model.Lead;
+import mover.backend.repository.LeadRepository;
+import mover.backend.web.rest.vm.LeadExportVM;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+
+import javax.persistence.EntityManager;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * REST controller for exporting Leads.
+ */
+@RestController
+@CrossOrigin
+@RequestMapping("/api")
+public class LeadExportResource {
+
+    private final Logger log = LoggerFactory.getLogger(LeadExportResource.class);
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private static final int FLUSH_SIZE = Integer.parseInt(LeadRepository.STREAM_FETCH_SIZE);
+
+    private final LeadRepository leadRepository;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public LeadExportResource(LeadRepository leadRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.leadRepository = leadRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * GET  /leads/export : Streams all leads with their estimates and inventories as NDJSON.
+     * <p>
+     * Leads are read through a database cursor with their customers and written in chunks.
+     * The estimates and inventories of the leads of a chunk are batch fetched together,
+     * and the chunk is detached once written, so memory use does not depend on the number of leads.
+     *
+     * @param gzip whether to gzip the response body
+     * @param response the response to write one lead per line to
+     * @throws IOException if the response cannot be written
+     */
+    @GetMapping(value = "/leads/export", produces = APPLICATION_NDJSON_VALUE)
+    @Transactional(readOnly = true)
+    public void exportLeads(@RequestParam(defaultValue = "false") boolean gzip,
+                            HttpServletResponse response) throws IOException {
+        log.debug("REST request to export all Leads, gzip: {}", gzip);
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        OutputStream out = gzip ? new GZIPOutputStream(response.getOutputStream()) : response.getOutputStream();
+        ObjectWriter writer = objectMapper.writerFor(LeadExportVM.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (Stream<Lead> leads = leadRepository.streamAllOrderById();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            Iterator<Lead> iterator = leads.iterator();
+            List<Lead> chunk = new ArrayList<>(FLUSH_SIZE);
+            int written = 0;
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == FLUSH_SIZE || !iterator.hasNext()) {
+                    // the first lead initializing a collection loads it for the others of the chunk
+                    for (Lead lead : chunk) {
+                        writer.writeValue(generator, LeadExportVM.of(lead));
+                        generator.writeRaw('\n');
+                    }
+                    written += chunk.size();
+                    chunk.clear();
+                    entityManager.clear();
+                    generator.flush();
+                }
+            }
+            log.debug("Exported {} Leads", written);
+        }
+    }
+}
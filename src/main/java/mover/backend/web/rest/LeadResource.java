@@ -1,19 +1,43 @@
 package mover.backend.web.rest;
 
 import mover.backend.model.*;
+import mover.backend.model.enumeration.Category;
+import mover.backend.model.enumeration.Status;
+import mover.backend.model.enumeration.Type;
 import mover.backend.repository.LeadRepository;
+import mover.backend.service.EmployeeAssignmentService;
+import mover.backend.service.EmployeeAvailabilityIndex;
+import mover.backend.service.LeadDistanceService;
+import mover.backend.service.LeadSpatialIndex;
+import mover.backend.service.LeadStatistics;
+import mover.backend.service.geo.GeoGridIndex;
+import mover.backend.web.rest.errors.CustomParameterizedException;
+import mover.backend.web.rest.errors.ErrorConstants;
 import mover.backend.web.rest.util.HeaderUtil;
+import mover.backend.web.rest.util.PaginationUtil;
 import mover.backend.web.rest.util.ResponseUtil;
+import mover.backend.web.rest.vm.EstimatesPatchVM;
+import mover.backend.web.rest.vm.InventoriesPatchVM;
+import mover.backend.web.rest.vm.LeadCalendarDayVM;
+import mover.backend.web.rest.vm.LeadStatsVM;
+import mover.backend.web.rest.vm.LeadVM;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * REST controller for managing Lead.
@@ -28,24 +52,189 @@ public class LeadResource {
     private static final String ENTITY_NAME = "lead";
     private static final String EMBEDDED_ESTIMATE = "estimate";
     private static final String EMBEDDED_INVENTORY = "inventory";
+    private static final String ENTITY_CUSTOMER = "customer";
+
+    private static final String SORT_BY_ID = "id";
+    private static final String SORT_BY_START = "start";
+
+    /**
+     * Longest time window of the calendar, enough for a month view with the surrounding weeks.
+     */
+    public static final int MAX_CALENDAR_DAYS = 62;
 
     private final LeadRepository leadRepository;
 
+    private final LeadSpatialIndex leadSpatialIndex;
+
+    private final EmployeeAvailabilityIndex employeeAvailabilityIndex;
+
+    private final EmployeeAssignmentService employeeAssignmentService;
+
+    private final LeadDistanceService leadDistanceService;
+
+    private final LeadStatistics leadStatistics;
+
     @Autowired
-    public LeadResource(LeadRepository leadRepository) {
+    public LeadResource(LeadRepository leadRepository, LeadSpatialIndex leadSpatialIndex,
+                        EmployeeAvailabilityIndex employeeAvailabilityIndex,
+                        EmployeeAssignmentService employeeAssignmentService,
+                        LeadDistanceService leadDistanceService, LeadStatistics leadStatistics) {
         this.leadRepository = leadRepository;
+        this.leadSpatialIndex = leadSpatialIndex;
+        this.employeeAvailabilityIndex = employeeAvailabilityIndex;
+        this.employeeAssignmentService = employeeAssignmentService;
+        this.leadDistanceService = leadDistanceService;
+        this.leadStatistics = leadStatistics;
     }
 
     /**
-     * GET  /leads : Queries leads from store.
+     * GET  /leads : Queries a page of leads from store.
+     * <p>
+     * Pages are addressed by keyset: pass the cursor from the {@code X-moverApp-next-cursor}
+     * header of the previous page to get the next one.
      *
-     * @return the ResponseEntity with status 200 (OK) and the list of leads in body
+     * @param status        filter by status, optional
+     * @param type          filter by type, optional
+     * @param from          only leads starting at or after this time, optional
+     * @param to            only leads ending at or before this time, optional
+     * @param minDistanceKm only leads with a route at least this long, optional
+     * @param maxDistanceKm only leads with a route at most this long, optional
+     * @param sort          sort key, {@code id} (default) or {@code start}
+     * @param afterId       id of the last lead of the previous page, optional
+     * @param afterStart    start of the last lead of the previous page when sorted by start, optional
+     * @param size          page size, at most {@link PaginationUtil#MAX_PAGE_SIZE}
+     * @param expand        associations to inline: estimates, inventories, customer, employees, totals
+     * @return the ResponseEntity with status 200 (OK) and the page of leads in body
      */
     @GetMapping("/leads")
-    public Iterable<Lead> queryLeads() {
-        log.debug("REST request to get all Leads");
-        Iterable<Lead> leads = leadRepository.findAll();
-        return leads;
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<LeadVM>> queryLeads(
+            @RequestParam(required = false) Status status,
+            @RequestParam(required = false) Type type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Double minDistanceKm,
+            @RequestParam(required = false) Double maxDistanceKm,
+            @RequestParam(defaultValue = SORT_BY_ID) String sort,
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) List<String> expand) {
+        log.debug("REST request to get a page of Leads after: {} {}", afterStart, afterId);
+        Set<LeadVM.Expand> expansions = LeadVM.Expand.parse(expand);
+        boolean byStart = SORT_BY_START.equals(sort);
+        List<Lead> leads = byStart
+                ? leadRepository.findPageOrderByStart(afterStart, afterId, status, type, from, to,
+                        minDistanceKm, maxDistanceKm, PaginationUtil.keysetPageable(size))
+                : leadRepository.findPageOrderById(afterId, status, type, from, to,
+                        minDistanceKm, maxDistanceKm, PaginationUtil.keysetPageable(size));
+        Map<String, Object> cursor = null;
+        if (PaginationUtil.trimPage(leads, size)) {
+            Lead last = leads.get(leads.size() - 1);
+            cursor = new LinkedHashMap<>();
+            if (byStart) {
+                cursor.put("afterStart", last.getStart());
+            }
+            cursor.put("afterId", last.getId());
+        }
+        return ResponseEntity.ok()
+                .headers(PaginationUtil.generateKeysetHttpHeaders(cursor))
+                .body(leads.stream()
+                        .map(lead -> LeadVM.of(lead, expansions))
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * GET  /leads/near : Finds leads located within a radius of a point.
+     *
+     * @param lat      latitude of the point
+     * @param lon      longitude of the point
+     * @param radiusKm radius in kilometers
+     * @param location whether to search by lead origin or destination
+     * @param size     maximal number of leads, at most {@link PaginationUtil#MAX_PAGE_SIZE}
+     * @return the ResponseEntity with status 200 (OK) and the leads sorted by distance, nearest first
+     */
+    @GetMapping("/leads/near")
+    public ResponseEntity<List<Lead>> findLeadsNear(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam double radiusKm,
+            @RequestParam(defaultValue = "ORIGIN") LeadSpatialIndex.Location location,
+            @RequestParam(required = false) Integer size) {
+        log.debug("REST request to get Leads with {} within {} km of: {}, {}", location, radiusKm, lat, lon);
+        List<GeoGridIndex.Hit> hits = leadSpatialIndex.findNear(location, lat, lon, radiusKm,
+                PaginationUtil.pageSize(size));
+        return ResponseEntity.ok(findLeadsInOrder(hits));
+    }
+
+    /**
+     * GET  /leads/within : Finds leads located within a bounding box.
+     *
+     * @param minLat   south edge of the box
+     * @param minLon   west edge of the box
+     * @param maxLat   north edge of the box
+     * @param maxLon   east edge of the box
+     * @param location whether to search by lead origin or destination
+     * @param size     maximal number of leads, at most {@link PaginationUtil#MAX_PAGE_SIZE}
+     * @return the ResponseEntity with status 200 (OK) and the leads sorted by distance from the box center
+     */
+    @GetMapping("/leads/within")
+    public ResponseEntity<List<Lead>> findLeadsWithin(
+            @RequestParam double minLat,
+            @RequestParam double minLon,
+            @RequestParam double maxLat,
+            @RequestParam double maxLon,
+            @RequestParam(defaultValue = "ORIGIN") LeadSpatialIndex.Location location,
+            @RequestParam(required = false) Integer size) {
+        log.debug("REST request to get Leads with {} within: {}, {} - {}, {}", location, minLat, minLon, maxLat, maxLon);
+        List<GeoGridIndex.Hit> hits = leadSpatialIndex.findWithin(location, minLat, minLon, maxLat, maxLon,
+                PaginationUtil.pageSize(size));
+        return ResponseEntity.ok(findLeadsInOrder(hits));
+    }
+
+    /**
+     * GET  /leads/calendar : Finds the leads overlapping the time window, bucketed by day.
+     * <p>
+     * Leads which end when the window starts, or start when it ends, are not in the calendar.
+     *
+     * @param from start of the time window
+     * @param to   end of the time window, at most {@link #MAX_CALENDAR_DAYS} days after the start
+     * @return the ResponseEntity with status 200 (OK) and the days with leads in ascending order,
+     * or with status 400 (Bad Request) if the window ends before it starts or is too long
+     */
+    @GetMapping("/leads/calendar")
+    public ResponseEntity<List<LeadCalendarDayVM>> findLeadsCalendar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("REST request to get the Leads calendar between: {} - {}", from, to);
+        if (to.isBefore(from) || to.isAfter(from.plusDays(MAX_CALENDAR_DAYS))) {
+            throw new CustomParameterizedException(ErrorConstants.ERR_VALIDATION, "to");
+        }
+        return ResponseEntity.ok(LeadCalendarDayVM.of(leadRepository.findCalendarByOverlap(from, to), from, to));
+    }
+
+    /**
+     * GET  /leads/stats : Counts the leads per status and per type.
+     * <p>
+     * The counts are kept in memory by the lead write paths, so reading them does not query the store.
+     * Leads written around the REST resources are counted after the next periodic reconciliation.
+     *
+     * @return the ResponseEntity with status 200 (OK) and with body the counts
+     */
+    @GetMapping("/leads/stats")
+    public ResponseEntity<LeadStatsVM> findLeadStats() {
+        log.debug("REST request to get Lead statistics");
+        return ResponseEntity.ok(LeadStatsVM.of(leadStatistics));
+    }
+
+    private List<Lead> findLeadsInOrder(List<GeoGridIndex.Hit> hits) {
+        Map<Long, Lead> leads = new HashMap<>();
+        leadRepository.findAllById(hits.stream().map(GeoGridIndex.Hit::getId).collect(Collectors.toList()))
+                .forEach(lead -> leads.put(lead.getId(), lead));
+        return hits.stream()
+                .map(hit -> leads.get(hit.getId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     /**
@@ -64,7 +253,9 @@ public class LeadResource {
                     .headers(HeaderUtil.createFailureAlert(ENTITY_NAME, "idexists", "A new lead cannot already have an ID"))
                     .build();
         }
-        Lead result = leadRepository.save(lead);
+        Lead result = leadRepository.save(leadDistanceService.classify(lead));
+        leadSpatialIndex.put(result);
+        leadStatistics.put(result);
         return ResponseEntity.created(new URI("/api/leads/" + result.getId()))
                 .headers(HeaderUtil.createEntityCreationAlert(ENTITY_NAME, result.getId().toString()))
                 .body(result);
@@ -72,37 +263,67 @@ public class LeadResource {
 
     /**
      * PUT  /leads : Updates lead in store.
+     * <p>
+     * The update is a single statement, conditional on the version of the {@code If-Match} ETag,
+     * or else on the version in the body. Without either the last write wins. A lead may not
+     * move onto another lead of one of its employees.
      *
      * @param lead the lead to update
-     * @return the ResponseEntity with status 200 (OK),
+     * @param ifMatch ETag of the version of the lead the client updates, optional
+     * @return the ResponseEntity with status 200 (OK) and the ETag of the new version if the expected version is known,
      * or with status 400 (Bad Request) if the lead is not valid,
-     * or with status 404 (Not Found) if there is no lead with this ID
+     * or with status 404 (Not Found) if there is no lead with this ID,
+     * or with status 409 (Conflict) if the lead has another version or would double-book an employee
      * @throws URISyntaxException if the Location URI syntax is incorrect
      */
     @PutMapping("/leads")
-    public ResponseEntity<Lead> updateLead(@Valid @RequestBody Lead lead) throws URISyntaxException {
+    public ResponseEntity<Lead> updateLead(@Valid @RequestBody Lead lead,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update Lead : {}", lead);
-        if (lead.getId() != null && leadRepository.existsById(lead.getId())) {
-            leadRepository.save(lead);
-            return ResponseEntity.ok()
-                    .headers(HeaderUtil.createEntityUpdateAlert(ENTITY_NAME, lead.getId().toString()))
-                    .build();
+        if (lead.getId() == null) {
+            return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.notFound().build();
+        Long version = ResponseUtil.expectedVersion(ifMatch, lead.getVersion(), ENTITY_NAME, lead.getId());
+        leadDistanceService.classify(lead);
+        if (!employeeAssignmentService.move(lead, () -> leadRepository.updateIfVersion(lead, version) > 0)) {
+            if (!leadRepository.existsById(lead.getId())) {
+                return ResponseEntity.notFound().build();
+            }
+            throw new OptimisticLockingFailureException("Lead " + lead.getId() + " does not have version " + version);
+        }
+        leadSpatialIndex.put(lead);
+        leadStatistics.put(lead);
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(ENTITY_NAME, lead.getId().toString());
+        if (version != null) {
+            headers.setETag(ResponseUtil.eTag(ENTITY_NAME, lead.getId(), version + 1));
+        }
+        return ResponseEntity.ok().headers(headers).build();
     }
 
     /**
      * GET  /leads/:id : Finds lead in store by ID.
      *
      * @param id the ID of the lead to return
+     * @param expand associations to inline: estimates, inventories, customer, employees, totals
+     * @param ifNoneMatch ETag of the version of the lead the client has, optional
      * @return the ResponseEntity with status 200 (OK) and with body the lead,
+     * or with status 304 (Not Modified) if the lead still has the version of the ETag,
      * or with status 404 (Not Found) if there is no lead with this ID
      */
     @GetMapping("/leads/{id}")
-    public ResponseEntity<Lead> findLead(@PathVariable Long id) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<LeadVM> findLead(@PathVariable Long id,
+                                           @RequestParam(required = false) List<String> expand,
+                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("REST request to get Lead : {}", id);
-        Optional<Lead> lead = leadRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(lead);
+        Set<LeadVM.Expand> expansions = LeadVM.Expand.parse(expand);
+        Supplier<Optional<LeadVM>> lead = () -> leadRepository.findById(id)
+                .map(found -> LeadVM.of(found, expansions));
+        if (expansions.contains(LeadVM.Expand.CUSTOMER) || expansions.contains(LeadVM.Expand.EMPLOYEES)) {
+            // Changes of the inlined customer and employees do not change the lead version
+            return ResponseUtil.wrapOrNotFound(lead.get());
+        }
+        return ResponseUtil.wrapOrNotFound(leadETag(id), ifNoneMatch, lead);
     }
 
     /**
@@ -114,15 +335,10 @@ public class LeadResource {
     @DeleteMapping("/leads/{id}")
     public ResponseEntity<Void> deleteLead(@PathVariable Long id) {
         log.debug("REST request to delete Lead : {}", id);
-        if (id != null) {
-            leadRepository.findById(id).ifPresent(lead -> {
-                Optional.ofNullable(lead.getCustomer())
-                        .ifPresent(customer -> customer.getLeads().remove(lead));
-                lead.setCustomer(null);
-                lead.getAssignedTos().forEach(employee -> employee.getLeads().remove(lead));
-                lead.setAssignedTos(Collections.emptySet());
-                leadRepository.delete(lead);
-            });
+        if (id != null && leadRepository.deleteAllByIdIn(Collections.singleton(id)) > 0) {
+            leadSpatialIndex.remove(id);
+            employeeAvailabilityIndex.removeLead(id);
+            leadStatistics.remove(id);
         }
         return ResponseEntity.ok()
                 .headers(HeaderUtil.createEntityDeletionAlert(ENTITY_NAME, id.toString()))
@@ -135,15 +351,17 @@ public class LeadResource {
      * GET  /leads/:id/estimates : Finds estimates in store by lead ID.
      *
      * @param id the ID of the estimates lead to return
+     * @param ifNoneMatch ETag of the version of the lead the client has, optional
      * @return the ResponseEntity with status 200 (OK) and with body the estimates,
+     * or with status 304 (Not Modified) if the lead still has the version of the ETag,
      * or with status 404 (Not Found) if there is no lead with this ID
      */
     @GetMapping("/leads/{id}/estimates")
-    public  ResponseEntity<Iterable<Estimate>> findEstimates(@PathVariable Long id) {
+    public  ResponseEntity<Iterable<Estimate>> findEstimates(@PathVariable Long id,
+                                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("REST request to get Estimates of Lead: {}", id);
-        Optional<Iterable<Estimate>> estimates = leadRepository.findById(id)
-                .map(Lead::getEstimates);
-        return ResponseUtil.wrapOrNotFound(estimates);
+        return ResponseUtil.wrapOrNotFound(leadETag(id), ifNoneMatch,
+                () -> nonNullRows(leadRepository.findEstimatesByLeadId(id)));
     }
 
     /**
@@ -171,19 +389,76 @@ public class LeadResource {
         return ResponseEntity.notFound().build();
     }
 
+    /**
+     * PATCH  /leads/:id/estimates  : Adds, updates and removes single lead estimates in store by lead ID.
+     * <p>
+     * The estimates collection of the lead is changed in place, so only the rows of
+     * the changed estimates are written instead of the whole collection.
+     *
+     * @param id the ID of the estimates lead to patch
+     * @param patch the changes keyed by estimate name
+     * @return the ResponseEntity with status 200 (OK),
+     * or with status 400 (Bad Request) if the changes are not valid, an added estimate already exists
+     * or an updated or removed estimate does not exist,
+     * or with status 404 (Not Found) if there is no lead with this ID
+     */
+    @PatchMapping("leads/{id}/estimates")
+    @Transactional
+    public ResponseEntity<Void> patchEstimates(@PathVariable Long id, @Valid @RequestBody EstimatesPatchVM patch) {
+        log.debug("REST request to patch Estimates of Lead: {}", id);
+        Optional<Lead> lead = leadRepository.findById(id);
+        if (!lead.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        Set<Estimate> estimates = lead.get().getEstimates();
+        Map<String, Estimate> byName = new HashMap<>();
+        estimates.forEach(estimate -> byName.put(estimate.getName(), estimate));
+
+        for (String name : patch.getRemove()) {
+            Estimate removed = byName.remove(name);
+            if (removed == null) {
+                throw new CustomParameterizedException(ErrorConstants.ERR_ESTIMATE_NOT_FOUND, name);
+            }
+            estimates.remove(removed);
+        }
+        for (EstimatesPatchVM.Change change : patch.getUpdate()) {
+            Estimate estimate = byName.get(change.getName());
+            if (estimate == null) {
+                throw new CustomParameterizedException(ErrorConstants.ERR_ESTIMATE_NOT_FOUND, change.getName());
+            }
+            if (change.getQuantity() != null) {
+                estimate.setQuantity(change.getQuantity());
+            }
+            if (change.getPrice() != null) {
+                estimate.setPrice(change.getPrice());
+            }
+        }
+        for (Estimate added : patch.getAdd()) {
+            if (byName.putIfAbsent(added.getName(), added) != null) {
+                throw new CustomParameterizedException(ErrorConstants.ERR_ESTIMATE_EXISTS, added.getName());
+            }
+            estimates.add(added);
+        }
+        return ResponseEntity.ok()
+                .headers(HeaderUtil.createEntityUpdateAlert(EMBEDDED_ESTIMATE, id.toString()))
+                .build();
+    }
+
     /**
      * GET  /leads/:id/inventories : Finds inventories in store by lead ID.
      *
      * @param id the ID of the inventories lead to return
+     * @param ifNoneMatch ETag of the version of the lead the client has, optional
      * @return the ResponseEntity with status 200 (OK) and with body the inventories,
+     * or with status 304 (Not Modified) if the lead still has the version of the ETag,
      * or with status 404 (Not Found) if there is no lead with this ID
      */
     @GetMapping("/leads/{id}/inventories")
-    public  ResponseEntity<Iterable<Inventory>> findInventories(@PathVariable Long id) {
+    public  ResponseEntity<Iterable<Inventory>> findInventories(@PathVariable Long id,
+                                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("REST request to get Inventories of Lead: {}", id);
-        Optional<Iterable<Inventory>> inventories = leadRepository.findById(id)
-                .map(Lead::getInventories);
-        return ResponseUtil.wrapOrNotFound(inventories);
+        return ResponseUtil.wrapOrNotFound(leadETag(id), ifNoneMatch,
+                () -> nonNullRows(leadRepository.findInventoriesByLeadId(id)));
     }
 
     /**
@@ -202,6 +477,7 @@ public class LeadResource {
         if (id != null && leadRepository.existsById(id)) {
             leadRepository.findById(id).ifPresent((Lead lead) -> {
                 lead.setInventories(inventories);
+                lead.countInventories();
                 leadRepository.save(lead);
             });
             return ResponseEntity.ok().build();
@@ -211,21 +487,109 @@ public class LeadResource {
                 .build();
     }
 
+    /**
+     * PATCH  /leads/:id/inventories  : Adds, updates and removes single lead inventories in store by lead ID.
+     * <p>
+     * The inventories collection of the lead is changed in place, so only the rows of
+     * the changed inventories are written, and the inventory totals of the lead are
+     * adjusted by the changed inventories only.
+     *
+     * @param id the ID of the inventories lead to patch
+     * @param patch the changes keyed by inventory name
+     * @return the ResponseEntity with status 200 (OK) and with body the inventory totals per category,
+     * or with status 400 (Bad Request) if the changes are not valid, an added inventory already exists
+     * or an updated or removed inventory does not exist,
+     * or with status 404 (Not Found) if there is no lead with this ID
+     */
+    @PatchMapping("leads/{id}/inventories")
+    @Transactional
+    public ResponseEntity<Map<Category, InventoryTotal>> patchInventories(@PathVariable Long id,
+                                                                          @Valid @RequestBody InventoriesPatchVM patch) {
+        log.debug("REST request to patch Inventories of Lead: {}", id);
+        Optional<Lead> found = leadRepository.findById(id);
+        if (!found.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        Lead lead = found.get();
+        Set<Inventory> inventories = lead.getInventories();
+        Map<String, Inventory> byName = new HashMap<>();
+        inventories.forEach(inventory -> byName.put(inventory.getName(), inventory));
+
+        for (String name : patch.getRemove()) {
+            Inventory removed = byName.remove(name);
+            if (removed == null) {
+                throw new CustomParameterizedException(ErrorConstants.ERR_INVENTORY_NOT_FOUND, name);
+            }
+            inventories.remove(removed);
+            lead.countInventory(removed, -1);
+        }
+        for (InventoriesPatchVM.Change change : patch.getUpdate()) {
+            Inventory inventory = byName.get(change.getName());
+            if (inventory == null) {
+                throw new CustomParameterizedException(ErrorConstants.ERR_INVENTORY_NOT_FOUND, change.getName());
+            }
+            lead.countInventory(inventory, -1);
+            if (change.getQuantity() != null) {
+                inventory.setQuantity(change.getQuantity());
+            }
+            if (change.getWeight() != null) {
+                inventory.setWeight(change.getWeight());
+            }
+            if (change.getVolume() != null) {
+                inventory.setVolume(change.getVolume());
+            }
+            lead.countInventory(inventory, 1);
+        }
+        for (Inventory added : patch.getAdd()) {
+            if (byName.putIfAbsent(added.getName(), added) != null) {
+                throw new CustomParameterizedException(ErrorConstants.ERR_INVENTORY_EXISTS, added.getName());
+            }
+            inventories.add(added);
+            lead.countInventory(added, 1);
+        }
+        return ResponseEntity.ok()
+                .headers(HeaderUtil.createEntityUpdateAlert(EMBEDDED_INVENTORY, id.toString()))
+                .body(InventoryTotal.copyOf(lead.getInventoryTotals()));
+    }
+
+    /**
+     * GET  /leads/:id/inventories/totals : Finds the inventory totals per category in store by lead ID.
+     *
+     * @param id the ID of the lead
+     * @param ifNoneMatch ETag of the version of the lead the client has, optional
+     * @return the ResponseEntity with status 200 (OK) and with body the totals of items, weight and volume per category,
+     * or with status 304 (Not Modified) if the lead still has the version of the ETag,
+     * or with status 404 (Not Found) if there is no lead with this ID
+     */
+    @GetMapping("/leads/{id}/inventories/totals")
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<Category, InventoryTotal>> findInventoryTotals(@PathVariable Long id,
+                                                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.debug("REST request to get Inventory totals of Lead: {}", id);
+        return ResponseUtil.wrapOrNotFound(leadETag(id), ifNoneMatch, () -> leadRepository.findById(id)
+                .map(lead -> InventoryTotal.copyOf(lead.getInventoryTotals())));
+    }
+
     /* ENTITIES */
 
     /**
      * GET  /leads/:id/customer : Finds customer in store by lead ID.
      *
      * @param id the ID of the customer lead to return
+     * @param ifNoneMatch ETag of the versions of the lead and customer the client has, optional
      * @return the ResponseEntity with status 200 (OK) and with body the customer,
+     * or with status 304 (Not Modified) if the lead and customer still have the versions of the ETag,
      * or with status 404 (Not Found) if there is no lead with this ID
      */
     @GetMapping("/leads/{id}/customer")
-    public  ResponseEntity<Customer> findCustomerByLeadId(@PathVariable Long id) {
+    public  ResponseEntity<Customer> findCustomerByLeadId(@PathVariable Long id,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("REST request to get Customer of Lead: {}", id);
-        Optional<Customer> customer = leadRepository.findById(id)
-                .map(Lead::getCustomer);
-        return ResponseUtil.wrapOrNotFound(customer);
+        // The lead version changes when the lead gets another customer
+        Optional<String> eTag = leadRepository.findCustomerVersionByLeadId(id)
+                .flatMap(customerVersion -> leadRepository.findVersionById(id)
+                        .map(leadVersion -> ResponseUtil.eTag(ENTITY_NAME, id, leadVersion, ENTITY_CUSTOMER, customerVersion)));
+        return ResponseUtil.wrapOrNotFound(eTag, ifNoneMatch, () -> leadRepository.findCustomerByLeadId(id));
     }
 
     /**
@@ -238,9 +602,30 @@ public class LeadResource {
     @GetMapping("/leads/{id}/employees")
     public  ResponseEntity<Iterable<Employee>> findEmployeesByLeadId(@PathVariable Long id) {
         log.debug("REST request to get Employees of Lead: {}", id);
-        Optional<Iterable<Employee>> employees = leadRepository.findById(id)
-                .map(Lead::getAssignedTos);
+        Optional<Iterable<Employee>> employees = nonNullRows(leadRepository.findEmployeesByLeadId(id));
         return ResponseUtil.wrapOrNotFound(employees);
     }
+
+    /**
+     * ETag of the current version of the lead, looked up without loading the lead.
+     *
+     * @return the ETag, or empty if there is no lead with the ID
+     */
+    private Optional<String> leadETag(Long id) {
+        return leadRepository.findVersionById(id)
+                .map(version -> ResponseUtil.eTag(ENTITY_NAME, id, version));
+    }
+
+    /**
+     * Converts the rows of a lead left joined with a collection: no rows if there is no lead,
+     * a single null row if the collection is empty.
+     */
+    private static <X> Optional<Iterable<X>> nonNullRows(List<X> rows) {
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        rows.removeIf(Objects::isNull);
+        return Optional.of(rows);
+    }
 }
 
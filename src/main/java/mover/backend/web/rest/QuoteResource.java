@@ -0,0 +1,71 @@
+package mover.backend.web.rest;
+
+import mover.backend.service.QuoteService;
+import mover.backend.service.pricing.Quote;
+import mover.backend.service.pricing.QuoteRun;
+import mover.backend.web.rest.errors.CustomParameterizedException;
+import mover.backend.web.rest.errors.ErrorConstants;
+import mover.backend.web.rest.util.ResponseUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for pricing leads by tariff.
+ */
+@RestController
+@CrossOrigin
+@RequestMapping("/api")
+public class QuoteResource {
+
+    private final Logger log = LoggerFactory.getLogger(QuoteResource.class);
+
+    private final QuoteService quoteService;
+
+    @Autowired
+    public QuoteResource(QuoteService quoteService) {
+        this.quoteService = quoteService;
+    }
+
+    /**
+     * GET  /leads/:id/quote : Quotes the lead: the price of its estimates plus the weight,
+     * volume and distance charges of the tariff.
+     *
+     * @param id     the ID of the lead to quote
+     * @param tariff the name of the tariff, the default tariff if not set
+     * @return the ResponseEntity with status 200 (OK) and with body the quote,
+     * or with status 400 (Bad Request) if there is no such tariff,
+     * or with status 404 (Not Found) if there is no lead with this ID
+     */
+    @GetMapping("/leads/{id}/quote")
+    public ResponseEntity<Quote> findQuote(@PathVariable Long id,
+                                           @RequestParam(required = false) String tariff) {
+        log.debug("REST request to quote Lead : {} under tariff {}", id, tariff);
+        return ResponseUtil.wrapOrNotFound(quoteService.quote(id, tariff(tariff)));
+    }
+
+    /**
+     * POST  /quotes/upcoming : Quotes all leads starting from now on under the tariff.
+     *
+     * @param tariff the name of the tariff, the default tariff if not set
+     * @return the ResponseEntity with status 200 (OK) and with body the number of quoted leads and their total,
+     * or with status 400 (Bad Request) if there is no such tariff
+     */
+    @PostMapping("/quotes/upcoming")
+    public ResponseEntity<QuoteRun> requoteUpcoming(@RequestParam(required = false) String tariff) {
+        log.debug("REST request to quote upcoming Leads under tariff {}", tariff);
+        return ResponseEntity.ok(quoteService.requoteUpcoming(tariff(tariff)));
+    }
+
+    private String tariff(String name) {
+        if (name == null) {
+            return quoteService.getDefaultTariff();
+        }
+        if (!quoteService.hasTariff(name)) {
+            throw new CustomParameterizedException(ErrorConstants.ERR_UNKNOWN_TARIFF, name);
+        }
+        return name;
+    }
+}
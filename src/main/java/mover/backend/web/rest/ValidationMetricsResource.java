@@ -0,0 +1,46 @@
+package mover.backend.web.rest;
+
+import mover.backend.validator.ValidationMetrics;
+import mover.backend.web.rest.vm.ConstraintMetricsVM;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * REST controller for reading the time spent by every validation constraint.
+ */
+@RestController
+@CrossOrigin
+@RequestMapping("/api")
+public class ValidationMetricsResource {
+
+    private final Logger log = LoggerFactory.getLogger(ValidationMetricsResource.class);
+
+    private final ValidationMetrics validationMetrics;
+
+    @Autowired
+    public ValidationMetricsResource(ValidationMetrics validationMetrics) {
+        this.validationMetrics = validationMetrics;
+    }
+
+    /**
+     * GET  /validation/metrics : Finds the calls, failures and time spent of every constraint validator.
+     *
+     * @return the ResponseEntity with status 200 (OK) and with body the metrics, the most time spent first
+     */
+    @GetMapping("/validation/metrics")
+    public ResponseEntity<List<ConstraintMetricsVM>> findValidationMetrics() {
+        log.debug("REST request to get validation metrics");
+        List<ConstraintMetricsVM> constraints = validationMetrics.getConstraints().stream()
+                .sorted(Comparator.comparingLong(ValidationMetrics.Constraint::getTotalNanos).reversed())
+                .map(ConstraintMetricsVM::of)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(constraints);
+    }
+}
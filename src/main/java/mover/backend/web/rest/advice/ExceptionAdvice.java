@@ -1,22 +1,20 @@
 package mover.backend.web.rest.advice;
 
+import mover.backend.service.BookingConflictException;
 import mover.backend.web.rest.errors.CustomParameterizedException;
 import mover.backend.web.rest.errors.ErrorConstants;
 import mover.backend.web.rest.errors.ErrorVM;
 import mover.backend.web.rest.errors.ParameterizedErrorVM;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
-import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
-import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
 
 import java.nio.file.AccessDeniedException;
@@ -30,13 +28,10 @@ public class ExceptionAdvice {
 
     private final Logger log = LoggerFactory.getLogger(ExceptionAdvice.class);
 
-    @Autowired
-    private javax.validation.Validator messageValidator;
-
-    @InitBinder
-    public void initBinder(WebDataBinder binder) {
-        System.out.println(messageValidator.getClass().getName());
-        binder.setValidator(new SpringValidatorAdapter(messageValidator));
+    @ExceptionHandler(BookingConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorVM processBookingConflictError(BookingConflictException ex) {
+        return new ErrorVM(ErrorConstants.ERR_BOOKING_CONFLICT, ex.getMessage());
     }
 
     @ExceptionHandler(ConcurrencyFailureException.class)
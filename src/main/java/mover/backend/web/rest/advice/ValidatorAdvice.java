@@ -1,34 +1,33 @@
 package mover.backend.web.rest.advice;
 
-import mover.backend.validator.CollectionValidator;
+import mover.backend.validator.ValidationPipeline;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.InitBinder;
 
-import java.util.Collection;
-
 /**
- * Controller advice that adds the {@link CollectionValidator} to the
- * {@link WebDataBinder}.
+ * Controller advice that sets the shared {@link ValidationPipeline} as the validator
+ * of every {@link WebDataBinder}.
  */
 @ControllerAdvice
 public class ValidatorAdvice {
 
+    private final ValidationPipeline validationPipeline;
+
     @Autowired
-    protected LocalValidatorFactoryBean validator;
+    public ValidatorAdvice(ValidationPipeline validationPipeline) {
+        this.validationPipeline = validationPipeline;
+    }
 
     /**
-     * Adds the {@link CollectionValidator} to the supplied
-     * {@link WebDataBinder} if {@link Collection} are used
+     * Sets the {@link ValidationPipeline} as the validator of the supplied
+     * {@link WebDataBinder}, which validates beans and the elements of collections.
      *
      * @param binder web data binder.
      */
     @InitBinder
     public void initBinder(WebDataBinder binder) {
-        if(binder.getTarget() instanceof Collection) {
-            binder.addValidators(new CollectionValidator(validator));
-        }
+        binder.setValidator(validationPipeline);
     }
 }
@@ -7,6 +7,14 @@ public final class ErrorConstants {
     public static final String ERR_VALIDATION = "error.validation";
     public static final String ERR_METHOD_NOT_SUPPORTED = "error.methodNotSupported";
     public static final String ERR_INTERNAL_SERVER_ERROR = "error.internalServerError";
+    public static final String ERR_UNKNOWN_EXPANSION = "error.unknownExpansion";
+    public static final String ERR_ESTIMATE_EXISTS = "error.estimateExists";
+    public static final String ERR_ESTIMATE_NOT_FOUND = "error.estimateNotFound";
+    public static final String ERR_INVENTORY_EXISTS = "error.inventoryExists";
+    public static final String ERR_INVENTORY_NOT_FOUND = "error.inventoryNotFound";
+    public static final String ERR_BOOKING_CONFLICT = "error.bookingConflict";
+    public static final String ERR_UNKNOWN_TARIFF = "error.unknownTariff";
+    public static final String ERR_BATCH_TOO_LARGE = "error.batchTooLarge";
 
     private ErrorConstants() {
     }
@@ -0,0 +1,93 @@
+package mover.backend.web.rest.util;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility class for handling keyset (cursor) pagination.
+ *
+ * <p>
+ * Instead of an offset the client passes the sort key of the last row it has seen,
+ * so every page is a single index range scan regardless of how deep it is.
+ * The cursor of the next page is returned in the {@code X-moverApp-next-cursor} header
+ * and as a {@code Link} header with {@code rel="next"}.
+ */
+public final class PaginationUtil {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String HEADER_NEXT_CURSOR = "X-moverApp-next-cursor";
+
+    private PaginationUtil() {
+    }
+
+    /**
+     * Creates a {@link Pageable} that fetches one row more than requested,
+     * so that the existence of the next page is known without a count query.
+     *
+     * @param size requested page size, may be null
+     * @return pageable limited to {@code size + 1} rows
+     */
+    public static Pageable keysetPageable(Integer size) {
+        return PageRequest.of(0, pageSize(size) + 1);
+    }
+
+    /**
+     * Clamps the requested page size to {@code [1, MAX_PAGE_SIZE]}.
+     *
+     * @param size requested page size, may be null
+     * @return the effective page size
+     */
+    public static int pageSize(Integer size) {
+        if (size == null || size < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Removes the look-ahead row fetched by {@link #keysetPageable(Integer)}.
+     *
+     * @param <X>  type of the rows
+     * @param rows rows returned by the repository
+     * @param size requested page size, may be null
+     * @return {@code true} if there is a next page
+     */
+    public static <X> boolean trimPage(List<X> rows, Integer size) {
+        int pageSize = pageSize(size);
+        if (rows.size() > pageSize) {
+            rows.subList(pageSize, rows.size()).clear();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Generates the headers pointing to the next page of the current request.
+     *
+     * @param cursor query parameters identifying the last row of the current page
+     * @return headers with the next cursor, or empty headers if {@code cursor} is null
+     */
+    public static HttpHeaders generateKeysetHttpHeaders(Map<String, Object> cursor) {
+        HttpHeaders headers = new HttpHeaders();
+        if (cursor == null) {
+            return headers;
+        }
+        UriComponentsBuilder next = ServletUriComponentsBuilder.fromCurrentRequest();
+        UriComponentsBuilder query = UriComponentsBuilder.newInstance();
+        cursor.forEach((name, value) -> {
+            next.replaceQueryParam(name, value);
+            query.queryParam(name, value);
+        });
+        headers.add(HEADER_NEXT_CURSOR, query.build().getQuery());
+        headers.add(HttpHeaders.LINK, "<" + next.toUriString() + ">; rel=\"next\"");
+        return headers;
+    }
+}
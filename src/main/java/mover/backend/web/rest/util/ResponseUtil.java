@@ -1,10 +1,14 @@
 package mover.backend.web.rest.util;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Utility class for ResponseEntity creation.
@@ -40,5 +44,93 @@ public final class ResponseUtil {
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
-}
+    /**
+     * Wrap a versioned response into a {@link ResponseEntity} with an {@link HttpStatus#OK} status and
+     * its ETag, or with {@link HttpStatus#NOT_MODIFIED} if the ETag matches the {@code If-None-Match}
+     * header, or with {@link HttpStatus#NOT_FOUND} if there is no ETag.
+     * <p>
+     * The response is loaded only if it was modified, so pass an ETag built from a version-only lookup.
+     *
+     * @param <X>           type of the response
+     * @param eTag          ETag of the current version of the response, empty if there is no response
+     * @param ifNoneMatch   value of the {@code If-None-Match} request header, may be null
+     * @param maybeResponse loads the response to return if present
+     * @return response containing {@code maybeResponse} if present and modified,
+     * {@link HttpStatus#NOT_MODIFIED} or {@link HttpStatus#NOT_FOUND}
+     */
+    public static <X> ResponseEntity<X> wrapOrNotFound(Optional<String> eTag, String ifNoneMatch,
+                                                       Supplier<Optional<X>> maybeResponse) {
+        if (!eTag.isPresent()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTag.get());
+        if (matches(ifNoneMatch, eTag.get())) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+        return wrapOrNotFound(maybeResponse.get(), headers);
+    }
+
+    /**
+     * Builds a strong ETag from the parts identifying a version of a response.
+     *
+     * @param parts the parts, for example the entity name, ID and version
+     * @return the quoted ETag
+     */
+    public static String eTag(Object... parts) {
+        return Stream.of(parts)
+                .map(String::valueOf)
+                .collect(Collectors.joining("-", "\"", "\""));
+    }
+
+    /**
+     * Resolves the version a conditional update expects: the version of the {@code If-Match} ETag
+     * built by {@link #eTag} from the parts and the version, otherwise the version in the body.
+     *
+     * @param ifMatch value of the {@code If-Match} request header, may be null
+     * @param version version in the request body, may be null
+     * @param parts   the parts of the ETag before the version, for example the entity name and ID
+     * @return the expected version, or null if any version may be updated
+     * @throws OptimisticLockingFailureException if the {@code If-Match} header cannot match any version
+     */
+    public static Long expectedVersion(String ifMatch, Long version, Object... parts) {
+        if (ifMatch == null) {
+            return version;
+        }
+        String prefix = eTag(parts);
+        prefix = prefix.substring(0, prefix.length() - 1) + "-";
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return null;
+            }
+            if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+                try {
+                    return Long.valueOf(tag.substring(prefix.length(), tag.length() - 1));
+                } catch (NumberFormatException e) {
+                    // Not one of our ETags, try the next one
+                }
+            }
+        }
+        throw new OptimisticLockingFailureException("If-Match " + ifMatch + " does not match " + prefix);
+    }
 
+    /**
+     * Compares the ETag with the {@code If-None-Match} header the weak way, as RFC 7232 requires for it.
+     */
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,31 @@
+package mover.backend.web.rest.vm;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+
+/**
+ * View Model for the hit and miss statistics of a second-level cache region.
+ */
+@Data
+@AllArgsConstructor
+public class CacheStatisticsVM {
+
+    private final String region;
+
+    private final long hitCount;
+
+    private final long missCount;
+
+    private final long putCount;
+
+    private final long elementCountInMemory;
+
+    public static CacheStatisticsVM of(String region, SecondLevelCacheStatistics statistics) {
+        return new CacheStatisticsVM(region,
+                statistics.getHitCount(),
+                statistics.getMissCount(),
+                statistics.getPutCount(),
+                statistics.getElementCountInMemory());
+    }
+}
@@ -0,0 +1,36 @@
+package mover.backend.web.rest.vm;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import mover.backend.validator.ValidationMetrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * View Model for the calls, failures and time spent of a constraint validator.
+ */
+@Data
+@AllArgsConstructor
+public class ConstraintMetricsVM {
+
+    private final String annotation;
+
+    private final String validator;
+
+    private final long calls;
+
+    private final long failures;
+
+    private final long totalMicros;
+
+    private final long maxMicros;
+
+    public static ConstraintMetricsVM of(ValidationMetrics.Constraint constraint) {
+        return new ConstraintMetricsVM(constraint.getAnnotation(),
+                constraint.getValidator(),
+                constraint.getCalls(),
+                constraint.getFailures(),
+                TimeUnit.NANOSECONDS.toMicros(constraint.getTotalNanos()),
+                TimeUnit.NANOSECONDS.toMicros(constraint.getMaxNanos()));
+    }
+}
@@ -0,0 +1,64 @@
+package mover.backend.web.rest.vm;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+import mover.backend.model.Estimate;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * View Model for incremental changes to the estimates of a lead, keyed by estimate name.
+ * Removals are applied first, then updates, then additions.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+public class EstimatesPatchVM {
+
+    /**
+     * Estimates to add, their names must not be used yet.
+     */
+    @Valid
+    @NotNull
+    private List<Estimate> add = new ArrayList<>();
+
+    /**
+     * Changes to existing estimates.
+     */
+    @Valid
+    @NotNull
+    private List<Change> update = new ArrayList<>();
+
+    /**
+     * Names of the estimates to remove.
+     */
+    @NotNull
+    private Set<String> remove = new HashSet<>();
+
+    /**
+     * A change to an existing estimate, fields left null are kept.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Accessors(chain = true)
+    public static class Change {
+        @NotNull
+        private String name;
+
+        @Min(1)
+        private Integer quantity;
+
+        @Min(1)
+        private Integer price;
+    }
+}
@@ -0,0 +1,67 @@
+package mover.backend.web.rest.vm;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+import mover.backend.model.Inventory;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * View Model for incremental changes to the inventories of a lead, keyed by inventory name.
+ * Removals are applied first, then updates, then additions.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+public class InventoriesPatchVM {
+
+    /**
+     * Inventories to add, their names must not be used yet.
+     */
+    @Valid
+    @NotNull
+    private List<Inventory> add = new ArrayList<>();
+
+    /**
+     * Changes to existing inventories.
+     */
+    @Valid
+    @NotNull
+    private List<Change> update = new ArrayList<>();
+
+    /**
+     * Names of the inventories to remove.
+     */
+    @NotNull
+    private Set<String> remove = new HashSet<>();
+
+    /**
+     * A change to an existing inventory, fields left null are kept.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Accessors(chain = true)
+    public static class Change {
+        @NotNull
+        private String name;
+
+        @Min(1)
+        private Integer quantity;
+
+        @Min(0)
+        private Integer weight;
+
+        @Min(0)
+        private Integer volume;
+    }
+}
@@ -0,0 +1,37 @@
+package mover.backend.web.rest.vm;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import mover.backend.web.rest.errors.FieldErrorVM;
+
+import java.util.List;
+
+/**
+ * View Model for the outcome of a single lead of a batch request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeadBatchResultVM {
+
+    /**
+     * The outcome of a single lead.
+     */
+    public enum Outcome {
+        CREATED, UPDATED, INVALID, ID_EXISTS, NOT_FOUND, CONFLICT, FAILED
+    }
+
+    /**
+     * Position of the lead in the request body.
+     */
+    private int index;
+
+    private Long id;
+
+    private Outcome outcome;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<FieldErrorVM> fieldErrors;
+}
@@ -0,0 +1,72 @@
+package mover.backend.web.rest.vm;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import mover.backend.model.enumeration.Status;
+import mover.backend.model.enumeration.Type;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * View Model for a day of the lead calendar: the leads taking place on the day.
+ */
+@Data
+@AllArgsConstructor
+public class LeadCalendarDayVM {
+
+    /**
+     * A lead in the calendar, without its addresses and associations.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class Entry {
+
+        private Long id;
+
+        private Status status;
+
+        private Type type;
+
+        private LocalDateTime start;
+
+        private LocalDateTime end;
+    }
+
+    private LocalDate date;
+
+    private List<Entry> leads;
+
+    /**
+     * Buckets the leads by the days of {@code [from, to)} they overlap. A lead spanning several days
+     * is in the bucket of every day, a lead ending at midnight is not in the bucket of the next day.
+     *
+     * @param rows the ID, status, type, start and end of the leads ordered by start
+     * @return the days with leads in ascending order
+     */
+    public static List<LeadCalendarDayVM> of(List<Object[]> rows, LocalDateTime from, LocalDateTime to) {
+        Map<LocalDate, List<Entry>> days = new TreeMap<>();
+        for (Object[] row : rows) {
+            Entry entry = new Entry((Long) row[0], (Status) row[1], (Type) row[2],
+                    (LocalDateTime) row[3], (LocalDateTime) row[4]);
+            LocalDateTime first = entry.getStart().isBefore(from) ? from : entry.getStart();
+            LocalDateTime last = entry.getEnd().isAfter(to) ? to : entry.getEnd();
+            LocalDate lastDay = last.toLocalDate();
+            if (last.toLocalTime().equals(LocalTime.MIDNIGHT) && last.isAfter(first)) {
+                lastDay = lastDay.minusDays(1);
+            }
+            for (LocalDate day = first.toLocalDate(); !day.isAfter(lastDay); day = day.plusDays(1)) {
+                days.computeIfAbsent(day, key -> new ArrayList<>()).add(entry);
+            }
+        }
+        return days.entrySet().stream()
+                .map(day -> new LeadCalendarDayVM(day.getKey(), day.getValue()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,33 @@
+package mover.backend.web.rest.vm;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import mover.backend.model.Estimate;
+import mover.backend.model.Inventory;
+import mover.backend.model.Lead;
+
+import java.util.Set;
+
+/**
+ * View Model for a single line of the lead export: the lead with its customer ID,
+ * estimates and inventories.
+ */
+@Data
+@AllArgsConstructor
+public class LeadExportVM {
+
+    @JsonUnwrapped
+    private final Lead lead;
+
+    private final Long customerId;
+
+    private final Set<Estimate> estimates;
+
+    private final Set<Inventory> inventories;
+
+    public static LeadExportVM of(Lead lead) {
+        Long customerId = lead.getCustomer() == null ? null : lead.getCustomer().getId();
+        return new LeadExportVM(lead, customerId, lead.getEstimates(), lead.getInventories());
+    }
+}
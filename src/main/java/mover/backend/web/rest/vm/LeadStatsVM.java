@@ -0,0 +1,39 @@
+package mover.backend.web.rest.vm;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import mover.backend.model.enumeration.Status;
+import mover.backend.model.enumeration.Type;
+import mover.backend.service.LeadStatistics;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * View Model for the counts of leads in total, per status and per type.
+ */
+@Data
+@AllArgsConstructor
+public class LeadStatsVM {
+
+    private long total;
+
+    private Map<Status, Long> statuses;
+
+    private Map<Type, Long> types;
+
+    public static LeadStatsVM of(LeadStatistics statistics) {
+        Map<Status, Long> statuses = new EnumMap<>(Status.class);
+        long total = 0;
+        for (Status status : Status.values()) {
+            long count = statistics.count(status);
+            statuses.put(status, count);
+            total += count;
+        }
+        Map<Type, Long> types = new EnumMap<>(Type.class);
+        for (Type type : Type.values()) {
+            types.put(type, statistics.count(type));
+        }
+        return new LeadStatsVM(total, statuses, types);
+    }
+}
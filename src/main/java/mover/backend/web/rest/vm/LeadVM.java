@@ -0,0 +1,76 @@
+package mover.backend.web.rest.vm;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import mover.backend.model.*;
+import mover.backend.model.enumeration.Category;
+import mover.backend.web.rest.errors.CustomParameterizedException;
+import mover.backend.web.rest.errors.ErrorConstants;
+
+import java.util.*;
+
+/**
+ * View Model for a lead with the requested associations inlined.
+ */
+@Data
+@AllArgsConstructor
+public class LeadVM {
+
+    /**
+     * An association of a lead that can be inlined.
+     */
+    public enum Expand {
+        ESTIMATES, INVENTORIES, CUSTOMER, EMPLOYEES, TOTALS;
+
+        /**
+         * Parses the values of an {@code expand} request parameter, ignoring case.
+         *
+         * @throws CustomParameterizedException if a value is not an association
+         */
+        public static Set<Expand> parse(Collection<String> values) {
+            Set<Expand> expand = EnumSet.noneOf(Expand.class);
+            if (values != null) {
+                for (String value : values) {
+                    try {
+                        expand.add(valueOf(value.trim().toUpperCase(Locale.ROOT)));
+                    } catch (IllegalArgumentException e) {
+                        throw new CustomParameterizedException(ErrorConstants.ERR_UNKNOWN_EXPANSION, value);
+                    }
+                }
+            }
+            return expand;
+        }
+    }
+
+    @JsonUnwrapped
+    private final Lead lead;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Set<Estimate> estimates;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Set<Inventory> inventories;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Customer customer;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Set<Employee> employees;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Map<Category, InventoryTotal> totals;
+
+    /**
+     * Copies the requested associations of the lead, which initializes them if lazy.
+     */
+    public static LeadVM of(Lead lead, Set<Expand> expand) {
+        return new LeadVM(lead,
+                expand.contains(Expand.ESTIMATES) ? new HashSet<>(lead.getEstimates()) : null,
+                expand.contains(Expand.INVENTORIES) ? new HashSet<>(lead.getInventories()) : null,
+                expand.contains(Expand.CUSTOMER) ? lead.getCustomer() : null,
+                expand.contains(Expand.EMPLOYEES) ? new HashSet<>(lead.getAssignedTos()) : null,
+                expand.contains(Expand.TOTALS) ? InventoryTotal.copyOf(lead.getInventoryTotals()) : null);
+    }
+}
@@ -0,0 +1,155 @@
+package mover.backend.service;
+
+import mover.backend.BackendApplication;
+import mover.backend.model.Address;
+import mover.backend.model.Employee;
+import mover.backend.model.Lead;
+import mover.backend.model.enumeration.Status;
+import mover.backend.model.enumeration.Type;
+import mover.backend.repository.EmployeeRepository;
+import mover.backend.repository.LeadRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stress test assigning overlapping leads to few employees from many threads at once.
+ * The leads and employees are committed, so they are deleted after the test.
+ *
+ * @see EmployeeAssignmentService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BackendApplication.class)
+public class EmployeeAssignmentServiceIntTest {
+
+    private static final int EMPLOYEES = 4;
+    private static final int LEADS = 200;
+    private static final int THREADS = 8;
+    private static final int ASSIGNMENTS_PER_THREAD = 250;
+
+    private static final LocalDateTime FIRST_START = LocalDateTime.of(2030, 1, 1, 8, 0);
+
+    private final Logger log = LoggerFactory.getLogger(EmployeeAssignmentServiceIntTest.class);
+
+    @Autowired
+    private EmployeeAssignmentService employeeAssignmentService;
+
+    @Autowired
+    private EmployeeAvailabilityIndex employeeAvailabilityIndex;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    private final List<Long> employeeIds = new ArrayList<>();
+
+    private final List<Long> leadIds = new ArrayList<>();
+
+    @Before
+    public void initTest() {
+        for (int i = 0; i < EMPLOYEES; i++) {
+            Employee employee = (Employee) new Employee()
+                    .setFirstName("Stress")
+                    .setLastName("Employee" + i)
+                    .setEmail("stress-employee" + i + "@gmail.com")
+                    .setPhone("+111-111-1111");
+            employeeIds.add(employeeRepository.save(employee).getId());
+            employeeAvailabilityIndex.putEmployee(employee.getId());
+        }
+        Random random = new Random(42);
+        List<Lead> leads = new ArrayList<>();
+        for (int i = 0; i < LEADS; i++) {
+            LocalDateTime start = FIRST_START.plusHours(random.nextInt(24 * 14));
+            leads.add(new Lead()
+                    .setStart(start)
+                    .setEnd(start.plusHours(1 + random.nextInt(8)))
+                    .setType(Type.LOCAL)
+                    .setStatus(Status.PENDING)
+                    .setOrigin(new Address("Stress origin", 0D, 0D))
+                    .setDestination(new Address("Stress destination", 0D, 0D)));
+        }
+        leadRepository.saveAll(leads).forEach(lead -> leadIds.add(lead.getId()));
+    }
+
+    @After
+    public void cleanUp() {
+        leadRepository.deleteAllByIdIn(leadIds);
+        leadIds.forEach(employeeAvailabilityIndex::removeLead);
+        for (Long employeeId : employeeIds) {
+            employeeRepository.deleteWithAssignmentsById(employeeId);
+            employeeAvailabilityIndex.removeEmployee(employeeId);
+        }
+    }
+
+    @Test
+    public void concurrentAssignmentsNeverDoubleBook() throws Exception {
+        AtomicInteger assigned = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            Random random = new Random(thread);
+            workers.add(executor.submit(() -> {
+                go.await();
+                for (int i = 0; i < ASSIGNMENTS_PER_THREAD; i++) {
+                    Long employeeId = employeeIds.get(random.nextInt(EMPLOYEES));
+                    Long leadId = leadIds.get(random.nextInt(LEADS));
+                    try {
+                        assigned.addAndGet(employeeAssignmentService.assign(employeeId, Collections.singleton(leadId)));
+                    } catch (BookingConflictException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        long started = System.nanoTime();
+        go.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - started;
+        executor.shutdown();
+        log.info("{} assignments and {} conflicts of {} attempts in {} ms, {} assignments/second",
+                assigned.get(), conflicts.get(), THREADS * ASSIGNMENTS_PER_THREAD,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                (long) (THREADS * ASSIGNMENTS_PER_THREAD / (elapsedNanos / 1e9)));
+
+        // Validate no employee has overlapping leads in the database
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = em.createQuery("select e.id, l.start, l.end from Lead l join l.assignedTos e"
+                + " where e.id in :ids order by e.id, l.start")
+                .setParameter("ids", employeeIds)
+                .getResultList();
+        assertThat(rows).hasSize(assigned.get());
+        for (int i = 1; i < rows.size(); i++) {
+            Object[] previous = rows.get(i - 1);
+            Object[] next = rows.get(i);
+            if (previous[0].equals(next[0])) {
+                assertThat((LocalDateTime) next[1]).isAfterOrEqualTo((LocalDateTime) previous[2]);
+            }
+        }
+        assertThat(assigned.get()).isPositive();
+        assertThat(conflicts.get()).isPositive();
+    }
+}
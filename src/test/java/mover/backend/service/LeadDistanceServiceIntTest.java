@@ -0,0 +1,86 @@
+package mover.backend.service;
+
+import mover.backend.BackendApplication;
+import mover.backend.model.Address;
+import mover.backend.model.Lead;
+import mover.backend.model.enumeration.Status;
+import mover.backend.model.enumeration.Type;
+import mover.backend.repository.LeadRepository;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the backfill of the lead distances. The leads are committed,
+ * so the backfill transactions see them, and deleted after the test.
+ *
+ * @see LeadDistanceService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BackendApplication.class)
+public class LeadDistanceServiceIntTest {
+
+    private static final int LEADS = 120;
+
+    @Autowired
+    private LeadDistanceService leadDistanceService;
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    private final List<Long> leadIds = new ArrayList<>();
+
+    @After
+    public void cleanUp() {
+        leadRepository.deleteAllByIdIn(leadIds);
+    }
+
+    @Test
+    public void backfill() {
+        // Initialize the database with leads written without a distance, one degree of latitude apart
+        List<Lead> leads = new ArrayList<>();
+        for (int i = 0; i < LEADS; i++) {
+            leads.add(new Lead()
+                    .setStart(LocalDateTime.of(2030, 1, 1, 8, 0))
+                    .setEnd(LocalDateTime.of(2030, 1, 1, 12, 0))
+                    .setType(Type.LOCAL)
+                    .setStatus(Status.PENDING)
+                    .setOrigin(new Address("Backfill origin", 0D, 0D))
+                    .setDestination(new Address("Backfill destination", 0D, 1D)));
+        }
+        leadRepository.saveAll(leads).forEach(lead -> leadIds.add(lead.getId()));
+
+        // Backfill the distances
+        assertThat(leadDistanceService.backfill()).isGreaterThanOrEqualTo(LEADS);
+
+        // Validate the distances in the database, the given type is kept
+        List<Lead> backfilled = new ArrayList<>();
+        leadRepository.findAllById(leadIds).forEach(backfilled::add);
+        assertThat(backfilled).hasSize(LEADS).allSatisfy(lead -> {
+            assertThat(lead.getDistanceKm()).isBetween(111D, 111.4D);
+            assertThat(lead.getType()).isEqualTo(Type.LOCAL);
+            assertThat(lead.getVersion()).isEqualTo(1L);
+        });
+
+        // Nothing is left to backfill from these leads
+        assertThat(leadRepository.findIdsWithoutDistance(leadIds.get(0) - 1,
+                PageRequest.of(0, LEADS))).doesNotContainAnyElementsOf(leadIds);
+    }
+
+    @Test
+    public void typeOf() {
+        assertThat(leadDistanceService.typeOf(0)).isEqualTo(Type.LOCAL);
+        assertThat(leadDistanceService.typeOf(50)).isEqualTo(Type.LOCAL);
+        assertThat(leadDistanceService.typeOf(50.1)).isEqualTo(Type.DISTANCE);
+    }
+}
@@ -0,0 +1,123 @@
+package mover.backend.service;
+
+import mover.backend.BackendApplication;
+import mover.backend.config.PricingProperties;
+import mover.backend.model.Address;
+import mover.backend.model.Estimate;
+import mover.backend.model.Lead;
+import mover.backend.model.enumeration.Status;
+import mover.backend.model.enumeration.Type;
+import mover.backend.repository.LeadRepository;
+import mover.backend.service.pricing.QuoteRun;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for quoting many upcoming leads at once. The leads are committed,
+ * so the parallel workers see them, and deleted after the test.
+ *
+ * @see QuoteService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BackendApplication.class)
+public class QuoteServiceIntTest {
+
+    private static final int LEADS = 2000;
+
+    @Autowired
+    private QuoteService quoteService;
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Autowired
+    private PricingProperties pricingProperties;
+
+    private final List<Long> leadIds = new ArrayList<>();
+
+    @After
+    public void cleanUp() {
+        leadRepository.deleteAllByIdIn(leadIds);
+    }
+
+    @Test
+    public void requoteUpcoming() {
+        // Initialize the database with upcoming leads and a past one
+        saveLeads(new Estimate("Big box", 1, 200));
+
+        // Quote the upcoming leads: estimates 200, distance 100 * 2.00
+        QuoteRun run = quoteService.requoteUpcoming("peak");
+        assertThat(run.getTariff()).isEqualTo("peak");
+        assertThat(run.getLeads()).isGreaterThanOrEqualTo(LEADS);
+        assertThat(run.getTotal()).isGreaterThanOrEqualTo(new BigDecimal(400 * LEADS));
+
+        // Validate the cached quotes
+        assertThat(quoteService.quote(leadIds.get(0), "peak"))
+                .hasValueSatisfying(quote -> assertThat(quote.getTotal()).isEqualByComparingTo("400"));
+    }
+
+    @Test
+    public void boundQuoteCache() {
+        // Initialize the database with more upcoming leads than the cache holds
+        saveLeads(new Estimate("Big box", 1, 200));
+        PricingProperties properties = new PricingProperties();
+        properties.setTariffs(pricingProperties.getTariffs());
+        properties.setQuoteCacheSize(100);
+        QuoteService boundedQuoteService = new QuoteService(leadRepository, properties);
+
+        // Quote the upcoming leads, the cache keeps only some of the quotes
+        assertThat(boundedQuoteService.requoteUpcoming("peak").getLeads()).isGreaterThanOrEqualTo(LEADS);
+        assertThat(boundedQuoteService.cachedQuotes("peak")).isLessThanOrEqualTo(100);
+
+        // Quotes which are no longer cached are quoted again
+        assertThat(boundedQuoteService.quote(leadIds.get(0), "peak"))
+                .hasValueSatisfying(quote -> assertThat(quote.getTotal()).isEqualByComparingTo("400"));
+    }
+
+    @Test
+    public void quoteEstimatesBeyondIntRange() {
+        // Initialize the database with a lead whose estimates total 10^10
+        Lead lead = newLead(LocalDateTime.now().plusDays(1));
+        lead.getEstimates().add(new Estimate("Many crates", 100_000, 100_000));
+        leadIds.add(leadRepository.save(lead).getId());
+
+        // Quote the lead without overflowing the product of quantity and price
+        assertThat(quoteService.quote(lead.getId(), "standard"))
+                .hasValueSatisfying(quote -> assertThat(quote.getEstimates()).isEqualByComparingTo("10000000000"));
+    }
+
+    /**
+     * Saves upcoming leads and a past one, all with the estimate.
+     */
+    private void saveLeads(Estimate estimate) {
+        List<Lead> leads = new ArrayList<>();
+        for (int i = 0; i <= LEADS; i++) {
+            Lead lead = newLead(i < LEADS ? LocalDateTime.now().plusDays(1 + i % 30) : LocalDateTime.now().minusDays(1));
+            lead.getEstimates().add(estimate);
+            leads.add(lead);
+        }
+        leadRepository.saveAll(leads).forEach(lead -> leadIds.add(lead.getId()));
+    }
+
+    private static Lead newLead(LocalDateTime start) {
+        return new Lead()
+                .setStart(start)
+                .setEnd(start.plusHours(4))
+                .setType(Type.LOCAL)
+                .setStatus(Status.PENDING)
+                .setOrigin(new Address("Quote origin", 0D, 0D))
+                .setDestination(new Address("Quote destination", 0D, 0D))
+                .setDistanceKm(100D);
+    }
+}
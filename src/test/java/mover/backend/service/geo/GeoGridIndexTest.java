@@ -0,0 +1,75 @@
+package mover.backend.service.geo;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class GeoGridIndexTest {
+
+    private GeoGridIndex index;
+
+    @Before
+    public void initTest() {
+        index = new GeoGridIndex(0.05);
+        index.put(1L, 50.450, 30.523);
+        index.put(2L, 50.500, 30.600);
+        index.put(3L, 49.840, 24.030);
+        index.put(4L, 0.001, 179.999);
+    }
+
+    @Test
+    public void shouldComputeHaversineDistance() {
+        assertThat(GeoUtil.distanceKm(50.450, 30.523, 49.840, 24.030)).isCloseTo(467.5, within(1.0));
+        assertThat(GeoUtil.distanceKm(0, 0, 0, 0)).isZero();
+    }
+
+    @Test
+    public void shouldFindWithinRadiusNearestFirst() {
+        List<GeoGridIndex.Hit> hits = index.findWithinRadius(50.45, 30.52, 10, 10);
+
+        assertThat(ids(hits)).containsExactly(1L, 2L);
+        assertThat(hits.get(0).getDistanceKm()).isLessThan(hits.get(1).getDistanceKm());
+    }
+
+    @Test
+    public void shouldLimitHits() {
+        assertThat(ids(index.findWithinRadius(50.45, 30.52, 1000, 1))).containsExactly(1L);
+    }
+
+    @Test
+    public void shouldFindWithinRadiusCoveringWholeGrid() {
+        assertThat(ids(index.findWithinRadius(50.45, 30.52, 30000, 10))).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    public void shouldFindWithinBox() {
+        assertThat(ids(index.findWithinBox(49, 24, 51, 31, 10))).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(ids(index.findWithinBox(-1, 179, 1, 180, 10))).containsExactly(4L);
+    }
+
+    @Test
+    public void shouldMovePoint() {
+        index.put(1L, 49.841, 24.031);
+
+        assertThat(ids(index.findWithinRadius(50.45, 30.52, 2, 10))).isEmpty();
+        assertThat(ids(index.findWithinRadius(49.84, 24.03, 2, 10))).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldRemovePoint() {
+        index.remove(1L);
+
+        assertThat(ids(index.findWithinRadius(50.45, 30.52, 10, 10))).containsExactly(2L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    private static List<Long> ids(List<GeoGridIndex.Hit> hits) {
+        return hits.stream().map(GeoGridIndex.Hit::getId).collect(Collectors.toList());
+    }
+}
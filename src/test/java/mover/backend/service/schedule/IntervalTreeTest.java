@@ -0,0 +1,92 @@
+package mover.backend.service.schedule;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class IntervalTreeTest {
+
+    private IntervalTree<Integer> tree;
+
+    @Before
+    public void initTest() {
+        tree = new IntervalTree<>();
+        tree.put(1L, 0, 10);
+        tree.put(2L, 20, 30);
+        tree.put(3L, 25, 40);
+    }
+
+    @Test
+    public void shouldFindOverlapping() {
+        assertThat(tree.overlaps(5, 6)).isTrue();
+        assertThat(tree.findOverlapping(5, 26)).containsExactly(1L, 2L, 3L);
+        assertThat(tree.findOverlapping(31, 50)).containsExactly(3L);
+    }
+
+    @Test
+    public void shouldNotOverlapTouchingIntervals() {
+        assertThat(tree.overlaps(10, 20)).isFalse();
+        assertThat(tree.findOverlapping(40, 50)).isEmpty();
+    }
+
+    @Test
+    public void shouldMoveInterval() {
+        tree.put(1L, 50, 60);
+
+        assertThat(tree.size()).isEqualTo(3);
+        assertThat(tree.overlaps(0, 10)).isFalse();
+        assertThat(tree.findOverlapping(55, 56)).containsExactly(1L);
+    }
+
+    @Test
+    public void shouldRemoveInterval() {
+        assertThat(tree.remove(3L)).isTrue();
+        assertThat(tree.remove(3L)).isFalse();
+
+        assertThat(tree.findOverlapping(0, 100)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    public void shouldRejectIntervalEndingBeforeStart() {
+        assertThatThrownBy(() -> tree.put(4L, 10, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void shouldMatchBruteForce() {
+        Random random = new Random(42);
+        Map<Long, int[]> intervals = new HashMap<>();
+        IntervalTree<Integer> randomTree = new IntervalTree<>();
+        for (int i = 0; i < 5000; i++) {
+            long id = random.nextInt(500);
+            if (random.nextInt(4) == 0) {
+                randomTree.remove(id);
+                intervals.remove(id);
+            } else {
+                int start = random.nextInt(10_000);
+                int end = start + random.nextInt(200);
+                randomTree.put(id, start, end);
+                intervals.put(id, new int[]{start, end});
+            }
+            int from = random.nextInt(10_000);
+            int to = from + random.nextInt(100);
+            List<Long> expected = new ArrayList<>();
+            intervals.forEach((key, interval) -> {
+                if (interval[0] < to && interval[1] > from) {
+                    expected.add(key);
+                }
+            });
+
+            assertThat(randomTree.findOverlapping(from, to)).containsExactlyInAnyOrderElementsOf(expected);
+            assertThat(randomTree.overlaps(from, to)).isEqualTo(!expected.isEmpty());
+        }
+        assertThat(randomTree.size()).isEqualTo(intervals.size());
+    }
+}
@@ -0,0 +1,96 @@
+package mover.backend.service.search;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PrefixIndexTest {
+
+    private PrefixIndex index;
+
+    @Before
+    public void initTest() {
+        index = new PrefixIndex();
+        index.put(1L, "John", "Johnson", "john.johnson@gmail.com", "+1-555-123-4567");
+        index.put(2L, "Jon", "Smith", "jon.smith@yahoo.com", "+1-555-987-6543");
+        index.put(3L, "Johanna", "Smithers", "johanna@mail.com", "+44-20-7946-0000");
+    }
+
+    @Test
+    public void shouldFindByWordPrefix() {
+        assertThat(index.search("jo", 10)).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(index.search("joh", 10)).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.search("SMITH", 10)).containsExactly(2L, 3L);
+        assertThat(index.search("yahoo", 10)).containsExactly(2L);
+        assertThat(index.search("xyz", 10)).isEmpty();
+    }
+
+    @Test
+    public void shouldMatchEveryWordOfTheQuery() {
+        assertThat(index.search("jo smi", 10)).containsExactly(2L, 3L);
+        assertThat(index.search("johanna smithers", 10)).containsExactly(3L);
+        assertThat(index.search("john smith", 10)).isEmpty();
+    }
+
+    @Test
+    public void shouldFindPhoneByDigits() {
+        assertThat(index.search("555-98", 10)).containsExactly(2L);
+        assertThat(index.search("1555123", 10)).containsExactly(1L);
+        assertThat(index.search("7946", 10)).containsExactly(3L);
+    }
+
+    @Test
+    public void shouldRankExactAndShorterWordsFirst() {
+        assertThat(index.search("jon", 10)).containsExactly(2L);
+        assertThat(index.search("john", 10)).containsExactly(1L);
+        assertThat(index.search("smith", 1)).containsExactly(2L);
+    }
+
+    @Test
+    public void shouldReplaceAndRemoveDocuments() {
+        index.put(2L, "Jane", "Doe", "jane.doe@gmail.com", "+1-555-000-0000");
+        assertThat(index.search("smith", 10)).containsExactly(3L);
+        assertThat(index.search("jane", 10)).containsExactly(2L);
+
+        index.remove(2L);
+        assertThat(index.search("jane", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldNotFindByBlankQuery() {
+        assertThat(index.search("  ", 10)).isEmpty();
+        assertThat(index.search(null, 10)).isEmpty();
+        assertThat(index.search("jo", 0)).isEmpty();
+    }
+
+    @Test
+    public void shouldFindMatchBeyondCandidatesOfCommonWord() {
+        PrefixIndex large = new PrefixIndex();
+        for (long id = 0; id < PrefixIndex.MAX_CANDIDATES * 2; id++) {
+            large.put(id, "Johnathan", "Doe" + id);
+        }
+        long last = PrefixIndex.MAX_CANDIDATES * 2;
+        large.put(last, "Johnathan", "Smith");
+
+        // The longer but common word is not scanned, the rare one is
+        assertThat(large.search("johnathan smith", 10)).containsExactly(last);
+        assertThat(large.search("smi johnatha", 10)).containsExactly(last);
+    }
+
+    @Test
+    public void shouldSearchManyDocumentsQuickly() {
+        PrefixIndex large = new PrefixIndex();
+        for (long id = 0; id < 200_000; id++) {
+            large.put(id, "First" + id, "Last" + (id % 1000), "person" + id + "@mail.com", "+1-555-" + id);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            large.search("last1", 20);
+        }
+        long started = System.nanoTime();
+        assertThat(large.search("last12", 20)).hasSize(20);
+        assertThat(large.search("first123456", 20)).containsExactly(123456L);
+        assertThat(System.nanoTime() - started).isLessThan(50_000_000L);
+    }
+}
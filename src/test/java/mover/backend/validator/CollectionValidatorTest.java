@@ -0,0 +1,100 @@
+package mover.backend.validator;
+
+import mover.backend.model.Inventory;
+import mover.backend.model.enumeration.Category;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CollectionValidatorTest {
+
+    private static final int THREADS = 4;
+
+    private static LocalValidatorFactoryBean validatorFactory;
+
+    private static ExecutorService executor;
+
+    @BeforeClass
+    public static void setup() {
+        validatorFactory = new LocalValidatorFactoryBean();
+        validatorFactory.afterPropertiesSet();
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        executor.shutdown();
+        validatorFactory.destroy();
+    }
+
+    @Test
+    public void reportIndexedFieldPaths() {
+        List<Inventory> inventories = inventories(10, 3, 7);
+
+        Errors errors = validate(new CollectionValidator(validatorFactory), inventories);
+
+        assertThat(fields(errors)).containsExactly("[3].category", "[7].category");
+        assertThat(errors.getFieldError("[3].category").getCode()).isEqualTo("NotNull");
+    }
+
+    @Test
+    public void validateInParallelLikeSerially() {
+        List<Inventory> inventories = inventories(10_000, 0, 4_999, 9_999);
+        CollectionValidator parallel = new CollectionValidator(validatorFactory, 100, 1000, executor, THREADS);
+
+        Errors serialErrors = validate(new CollectionValidator(validatorFactory), inventories);
+        Errors parallelErrors = validate(parallel, inventories);
+
+        assertThat(fields(parallelErrors))
+                .containsExactly("[0].category", "[4999].category", "[9999].category")
+                .isEqualTo(fields(serialErrors));
+    }
+
+    @Test
+    public void stopAfterMaxErrors() {
+        int[] invalid = new int[10_000];
+        for (int i = 0; i < invalid.length; i++) {
+            invalid[i] = i;
+        }
+        List<Inventory> inventories = inventories(10_000, invalid);
+
+        assertThat(validate(new CollectionValidator(validatorFactory, 5, Integer.MAX_VALUE, null, 1), inventories)
+                .getErrorCount()).isEqualTo(5);
+        assertThat(fields(validate(new CollectionValidator(validatorFactory, 5, 1000, executor, THREADS), inventories)))
+                .hasSize(5)
+                .allMatch(field -> field.endsWith("].category"));
+    }
+
+    private static Errors validate(CollectionValidator validator, List<Inventory> inventories) {
+        Errors errors = new BeanPropertyBindingResult(inventories, "inventories");
+        validator.validate(inventories, errors);
+        return errors;
+    }
+
+    private static List<String> fields(Errors errors) {
+        return errors.getFieldErrors().stream().map(FieldError::getField).collect(Collectors.toList());
+    }
+
+    private static List<Inventory> inventories(int count, int... invalid) {
+        List<Inventory> inventories = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            inventories.add(new Inventory(Category.BED, "Item " + i, 1, 10, 20));
+        }
+        for (int i : invalid) {
+            inventories.get(i).setCategory(null);
+        }
+        return inventories;
+    }
+}
@@ -0,0 +1,99 @@
+package mover.backend.validator;
+
+import mover.backend.annotation.DateRange;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.ValidationException;
+import javax.validation.Validator;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DateRangeValidatorTest {
+
+    private static final LocalDate DAY = LocalDate.of(2018, 1, 1);
+
+    private static Validator validator;
+
+    @BeforeClass
+    public static void setup() {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+    }
+
+    @Test
+    public void shouldValidateAllRanges() {
+        assertThat(validator.validate(new Stay(DAY, DAY.plusDays(3), DAY.plusDays(1), DAY.plusDays(2)))).isEmpty();
+    }
+
+    @Test
+    public void shouldNotValidateEachInvalidRange() {
+        assertThat(paths(validator.validate(new Stay(DAY, DAY.plusDays(3), DAY.plusDays(2), DAY.plusDays(1)))))
+                .containsOnly("checkIn", "checkOut");
+        assertThat(paths(validator.validate(new Stay(DAY.plusDays(3), DAY, DAY.plusDays(2), DAY.plusDays(1)))))
+                .containsOnly("start", "end", "checkIn", "checkOut");
+    }
+
+    @Test
+    public void shouldValidateInheritedFields() {
+        assertThat(paths(validator.validate(new ExtendedStay(DAY, DAY, DAY, DAY.plusDays(1)))))
+                .containsOnly("start", "end");
+    }
+
+    @Test
+    public void shouldValidateManyObjectsOfManyClasses() {
+        for (int i = 0; i < 10_000; i++) {
+            Stay stay = i % 2 == 0 ? new Stay(DAY, DAY.plusDays(2), DAY, DAY.plusDays(1))
+                    : new ExtendedStay(DAY, DAY.plusDays(1), DAY.plusDays(1), DAY);
+            assertThat(validator.validate(stay)).hasSize(i % 2 == 0 ? 0 : 2);
+        }
+    }
+
+    @Test
+    public void shouldFailOnUnknownField() {
+        assertThatThrownBy(() -> validator.validate(new Unknown()))
+                .isInstanceOf(ValidationException.class)
+                .hasStackTraceContaining("No field missing");
+    }
+
+    private static Set<String> paths(Set<? extends ConstraintViolation<?>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath().toString())
+                .collect(Collectors.toSet());
+    }
+
+    @DateRange(before = "start", after = "end")
+    @DateRange(before = "checkIn", after = "checkOut")
+    private static class Stay {
+
+        private final LocalDate start;
+        private final LocalDate end;
+        private final LocalDate checkIn;
+        private final LocalDate checkOut;
+
+        private Stay(LocalDate start, LocalDate end, LocalDate checkIn, LocalDate checkOut) {
+            this.start = start;
+            this.end = end;
+            this.checkIn = checkIn;
+            this.checkOut = checkOut;
+        }
+    }
+
+    private static class ExtendedStay extends Stay {
+
+        private ExtendedStay(LocalDate start, LocalDate end, LocalDate checkIn, LocalDate checkOut) {
+            super(start, end, checkIn, checkOut);
+        }
+    }
+
+    @DateRange(before = "start", after = "missing")
+    private static class Unknown {
+
+        private final LocalDate start = DAY;
+    }
+}
@@ -0,0 +1,79 @@
+package mover.backend.validator;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmailValidatorTest {
+
+    private static final Pattern EMAIL_PATTERN =
+            Pattern.compile("[A-z0-9]+(\\-[A-z0-9]+|\\.[A-z0-9]+|\\_[A-z0-9]+)*@[A-z0-9]{2,}(\\.[A-z]{2,})+");
+
+    private static final String ALPHABET = "aZ9_-.@[` !";
+
+    @Test
+    public void acceptValidEmails() {
+        assertThat(EmailValidator.isEmail("default-email@gmail.com")).isTrue();
+        assertThat(EmailValidator.isEmail("john.smith_jr@mail.co.uk")).isTrue();
+        assertThat(EmailValidator.isEmail("_x_@a1.ab")).isTrue();
+        assertThat(EmailValidator.isEmail("a^b@x`.Zz")).isTrue();
+    }
+
+    @Test
+    public void rejectInvalidEmails() {
+        assertThat(EmailValidator.isEmail("")).isFalse();
+        assertThat(EmailValidator.isEmail("WRONG EMAIL")).isFalse();
+        assertThat(EmailValidator.isEmail("a@b.com")).isFalse();
+        assertThat(EmailValidator.isEmail("a@bb")).isFalse();
+        assertThat(EmailValidator.isEmail("a@bb.c")).isFalse();
+        assertThat(EmailValidator.isEmail("a@bb.com.")).isFalse();
+        assertThat(EmailValidator.isEmail("a@bb.c0m")).isFalse();
+        assertThat(EmailValidator.isEmail("a@b-b.com")).isFalse();
+        assertThat(EmailValidator.isEmail("a@@bb.com")).isFalse();
+        assertThat(EmailValidator.isEmail(".a@bb.com")).isFalse();
+        assertThat(EmailValidator.isEmail("a.@bb.com")).isFalse();
+        assertThat(EmailValidator.isEmail("a..a@bb.com")).isFalse();
+        assertThat(EmailValidator.isEmail("a-.a@bb.com")).isFalse();
+        assertThat(EmailValidator.isEmail("a@bb.com@bb.com")).isFalse();
+    }
+
+    @Test
+    public void acceptSameEmailsAsPattern() {
+        Random random = new Random(42);
+        StringBuilder email = new StringBuilder();
+        for (int i = 0; i < 200_000; i++) {
+            email.setLength(0);
+            int length = random.nextInt(14);
+            for (int j = 0; j < length; j++) {
+                email.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            // Bias towards the shape of an email so that valid ones are generated too
+            if (random.nextBoolean()) {
+                email.insert(random.nextInt(email.length() + 1), "ab@cd.ef");
+            }
+            assertThat(EmailValidator.isEmail(email))
+                    .as(email.toString())
+                    .isEqualTo(EMAIL_PATTERN.matcher(email).matches());
+        }
+    }
+
+    @Test(timeout = 1000)
+    public void validateNearMissesInLinearTime() {
+        // Each of these keeps the pattern backtracking for longer than the age of the universe
+        assertThat(EmailValidator.isEmail(repeat("a_", 100_000) + "!")).isFalse();
+        assertThat(EmailValidator.isEmail(repeat("a_", 100_000) + "@bb.com")).isTrue();
+        assertThat(EmailValidator.isEmail("a" + repeat(".a", 100_000) + "@bb.c")).isFalse();
+        assertThat(EmailValidator.isEmail("a@" + repeat("b", 100_000) + repeat(".cc", 100_000) + "!")).isFalse();
+    }
+
+    private static String repeat(String value, int count) {
+        StringBuilder result = new StringBuilder(value.length() * count);
+        for (int i = 0; i < count; i++) {
+            result.append(value);
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,86 @@
+package mover.backend.web.rest;
+
+import mover.backend.BackendApplication;
+import mover.backend.model.Customer;
+import mover.backend.repository.CustomerRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Test class for the CacheStatisticsResource REST controller.
+ *
+ * @see CacheStatisticsResource
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BackendApplication.class)
+public class CacheStatisticsResourceIntTest {
+
+    private static final String CUSTOMER_REGION = Customer.class.getName();
+
+    private static final Long SEEDED_CUSTOMER_ID = 1L;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    @Autowired
+    private EntityManager em;
+
+    private MockMvc restCacheStatisticsMockMvc;
+
+    private Statistics statistics;
+
+    @Before
+    public void setup() {
+        CacheStatisticsResource cacheStatisticsResource = new CacheStatisticsResource(entityManagerFactory);
+        this.restCacheStatisticsMockMvc = MockMvcBuilders.standaloneSetup(cacheStatisticsResource)
+                .setMessageConverters(jacksonMessageConverter).build();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    @Transactional
+    public void findCustomerFromCache() throws Exception {
+        // Load the customer into the cache
+        customerRepository.findById(SEEDED_CUSTOMER_ID);
+        em.clear();
+        long hitsBefore = statistics.getSecondLevelCacheStatistics(CUSTOMER_REGION).getHitCount();
+
+        // Find the customer again without a statement
+        long statementsBefore = statistics.getPrepareStatementCount();
+        assertThat(customerRepository.findById(SEEDED_CUSTOMER_ID)).isPresent();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsBefore);
+        assertThat(statistics.getSecondLevelCacheStatistics(CUSTOMER_REGION).getHitCount()).isGreaterThan(hitsBefore);
+
+        // Get the cache statistics
+        restCacheStatisticsMockMvc.perform(get("/api/cache/statistics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].region").value(hasItem(CUSTOMER_REGION)))
+                .andExpect(jsonPath("$.[*].region").value(hasItem(Customer.class.getName() + ".leads")));
+    }
+}
@@ -8,13 +8,17 @@ import mover.backend.model.enumeration.Status;
 import mover.backend.model.enumeration.Type;
 import mover.backend.repository.CustomerRepository;
 import mover.backend.repository.LeadRepository;
+import mover.backend.service.PersonSearchIndex;
 import mover.backend.web.rest.advice.ExceptionAdvice;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.context.junit4.SpringRunner;
@@ -31,7 +35,9 @@ import java.util.List;
 import static java.util.Arrays.asList;
 import static mover.backend.web.rest.TestUtil.sameInstant;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -68,6 +74,9 @@ public class CustomerResourceIntTest {
     @Autowired
     private LeadRepository leadRepository;
 
+    @Autowired
+    private PersonSearchIndex personSearchIndex;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -84,7 +93,7 @@ public class CustomerResourceIntTest {
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        CustomerResource customerResource = new CustomerResource(customerRepository, leadRepository);
+        CustomerResource customerResource = new CustomerResource(customerRepository, leadRepository, personSearchIndex);
         this.restCustomerMockMvc = MockMvcBuilders.standaloneSetup(customerResource)
                 .setControllerAdvice(exceptionTranslator)
                 .setMessageConverters(jacksonMessageConverter).build();
@@ -164,6 +173,76 @@ public class CustomerResourceIntTest {
                 .andExpect(jsonPath("$.[*].phone").value(hasItem(DEFAULT_PHONE)));
     }
 
+    @Test
+    @Transactional
+    public void queryCustomersByKeyset() throws Exception {
+        // Initialize the database
+        Customer next = (Customer) new Customer()
+                .setFirstName(UPDATED_FIRST_NAME)
+                .setLastName(UPDATED_LAST_NAME)
+                .setPhone(UPDATED_PHONE)
+                .setEmail(UPDATED_EMAIL);
+        saveAndFlush(customer);
+        saveAndFlush(next);
+
+        // Get the first page
+        restCustomerMockMvc.perform(get("/api/customers")
+                .param("afterId", String.valueOf(customer.getId() - 1))
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-moverApp-next-cursor", "afterId=" + customer.getId()))
+                .andExpect(jsonPath("$.[*].id").value(contains(customer.getId().intValue())));
+
+        // Get the next page from the cursor
+        restCustomerMockMvc.perform(get("/api/customers")
+                .param("afterId", customer.getId().toString())
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-moverApp-next-cursor"))
+                .andExpect(jsonPath("$.[*].id").value(contains(next.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    public void searchCustomers() throws Exception {
+        // Create the Customer with searchable names
+        customer.setFirstName("Quillon").setLastName("Marbury").setPhone("+333-444-5555");
+        restCustomerMockMvc.perform(post("/api/customers")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(customer)))
+                .andExpect(status().isCreated());
+        Customer created = getLastCustomer();
+
+        // Search by word prefixes and by the digits of the phone
+        restCustomerMockMvc.perform(get("/api/customers/search?q=quil marb"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(hasItem(created.getId().intValue())));
+        restCustomerMockMvc.perform(get("/api/customers/search?q=3334445"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(hasItem(created.getId().intValue())));
+
+        // Update the customer, only the new name matches
+        em.detach(created);
+        created.setFirstName("Zephyrine");
+        restCustomerMockMvc.perform(put("/api/customers")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(created)))
+                .andExpect(status().isOk());
+        restCustomerMockMvc.perform(get("/api/customers/search?q=quil"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(not(hasItem(created.getId().intValue()))));
+        restCustomerMockMvc.perform(get("/api/customers/search?q=zephyr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].id").value(created.getId().intValue()));
+
+        // Delete the customer, nothing matches
+        restCustomerMockMvc.perform(delete("/api/customers/{id}", created.getId()))
+                .andExpect(status().isOk());
+        restCustomerMockMvc.perform(get("/api/customers/search?q=zephyr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(not(hasItem(created.getId().intValue()))));
+    }
+
     @Test
     @Transactional
     public void createCustomer() throws Exception {
@@ -229,6 +308,8 @@ public class CustomerResourceIntTest {
 
         // Update the customer
         Customer updatedCustomer = customerRepository.findById(customer.getId()).get();
+        // Disconnect from session so that the updates on updatedCustomer are not directly saved in db
+        em.detach(updatedCustomer);
         updatedCustomer
                 .setFirstName(UPDATED_FIRST_NAME)
                 .setLastName(UPDATED_LAST_NAME)
@@ -249,6 +330,50 @@ public class CustomerResourceIntTest {
         assertThat(testCustomer.getPhone()).isEqualTo(UPDATED_PHONE);
     }
 
+    @Test
+    @Transactional
+    public void updateCustomerWithStaleVersion() throws Exception {
+        // Initialize the database
+        saveAndFlush(customer);
+        em.detach(customer);
+
+        // Update the customer with a version it no longer has
+        customer
+                .setFirstName(UPDATED_FIRST_NAME)
+                .setVersion(customer.getVersion() - 1);
+        restCustomerMockMvc.perform(put("/api/customers")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(customer)))
+                .andExpect(status().isConflict());
+
+        // Validate the Customer in the database
+        assertThat(getLastCustomer().getFirstName()).isEqualTo(DEFAULT_FIRST_NAME);
+    }
+
+    @Test
+    @Transactional
+    public void updateCustomerKeepsOtherCachedCustomers() throws Exception {
+        // Initialize the database
+        saveAndFlush(customer);
+        em.detach(customer);
+
+        // Load a seeded customer into the cache
+        Cache cache = em.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        assertThat(customerRepository.findById(1L)).isPresent();
+        assertThat(cache.containsEntity(Customer.class, 1L)).isTrue();
+
+        // Update the customer
+        customer.setFirstName(UPDATED_FIRST_NAME);
+        restCustomerMockMvc.perform(put("/api/customers")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(customer)))
+                .andExpect(status().isOk());
+
+        // Validate the other customer is still cached
+        assertThat(cache.containsEntity(Customer.class, 1L)).isTrue();
+        assertThat(getLastCustomer().getFirstName()).isEqualTo(UPDATED_FIRST_NAME);
+    }
+
     @Test
     @Transactional
     public void updateNotValidCustomer() throws Exception {
@@ -308,6 +433,35 @@ public class CustomerResourceIntTest {
                 .andExpect(jsonPath("$.phone").value(DEFAULT_PHONE));
     }
 
+    @Test
+    @Transactional
+    public void findCustomerNotModified() throws Exception {
+        // Initialize the database
+        saveAndFlush(customer);
+
+        // Get the customer and its ETag
+        String eTag = restCustomerMockMvc.perform(get("/api/customers/{id}", customer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Get the customer again with the ETag
+        restCustomerMockMvc.perform(get("/api/customers/{id}", customer.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // Update the customer
+        customer.setFirstName(UPDATED_FIRST_NAME);
+        em.flush();
+
+        // Validate the ETag no longer matches
+        restCustomerMockMvc.perform(get("/api/customers/{id}", customer.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value(UPDATED_FIRST_NAME));
+    }
+
     @Test
     @Transactional
     public void findNonExistingCustomer() throws Exception {
@@ -408,6 +562,79 @@ public class CustomerResourceIntTest {
         assertThat(lead.getCustomer()).isEqualTo(customer);
     }
 
+    @Test
+    @Transactional
+    public void updateConnectionLeadByCustomerIdEvictsCachedLeads() throws Exception {
+        // Initialize the database and cache the leads of the customer
+        saveAndFlush(customer);
+        saveAndFlush(lead);
+        em.clear();
+        assertThat(customerRepository.findById(customer.getId()).get().getLeads()).isEmpty();
+        em.clear();
+
+        // Put the lead to the customer
+        restCustomerMockMvc.perform(put("/api/customers/{customerId}/leads/{leadId}", customer.getId(), lead.getId()))
+                .andExpect(status().isOk());
+        em.flush();
+        em.clear();
+
+        // Validate the cached leads of the customer are not stale
+        assertThat(customerRepository.findById(customer.getId()).get().getLeads())
+                .extracting(Lead::getId).containsExactly(lead.getId());
+    }
+
+    @Test
+    @Transactional
+    public void updateConnectionLeadsByCustomerId() throws Exception {
+        // Initialize the database
+        saveAndFlush(customer);
+
+        // Put the seeded leads to the customer
+        restCustomerMockMvc.perform(put("/api/customers/{id}/leads", customer.getId())
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(asList(1L, 2L, Long.MAX_VALUE))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(2));
+
+        // Validate connection between Customer and Leads
+        assertThat(customerRepository.findById(customer.getId()).get().getLeads())
+                .extracting(Lead::getId).containsOnly(1L, 2L);
+    }
+
+    @Test
+    @Transactional
+    public void updateConnectionLeadsByCustomerIdKeepsOtherCachedLeads() throws Exception {
+        // Initialize the database and cache the leads of two seeded customers
+        saveAndFlush(customer);
+        Cache cache = em.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        String role = Customer.class.getName() + ".leads";
+        assertThat(customerRepository.findById(1L).get().getLeads()).extracting(Lead::getId).contains(1L);
+        assertThat(customerRepository.findById(3L).get().getLeads()).isNotEmpty();
+        assertThat(cache.containsCollection(role, 3L)).isTrue();
+        em.clear();
+
+        // Put a lead of the first seeded customer to the customer
+        restCustomerMockMvc.perform(put("/api/customers/{id}/leads", customer.getId())
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(asList(1L))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(1));
+
+        // Validate the leads of the other customer are still cached and the previous owner is not stale
+        assertThat(cache.containsCollection(role, 3L)).isTrue();
+        assertThat(customerRepository.findById(1L).get().getLeads()).extracting(Lead::getId).doesNotContain(1L);
+    }
+
+    @Test
+    @Transactional
+    public void updateConnectionLeadsByNonExistingCustomerId() throws Exception {
+        // Put the leads to the customer
+        restCustomerMockMvc.perform(put("/api/customers/{id}/leads", Long.MAX_VALUE)
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(asList(1L, 2L))))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @Transactional
     public void updateConnectionNonExistingLeadByCustomerId() throws Exception {
@@ -8,7 +8,11 @@ import mover.backend.model.enumeration.Status;
 import mover.backend.model.enumeration.Type;
 import mover.backend.repository.EmployeeRepository;
 import mover.backend.repository.LeadRepository;
+import mover.backend.service.EmployeeAssignmentService;
+import mover.backend.service.EmployeeAvailabilityIndex;
+import mover.backend.service.PersonSearchIndex;
 import mover.backend.web.rest.advice.ExceptionAdvice;
+import mover.backend.web.rest.errors.ErrorConstants;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -26,12 +30,16 @@ import javax.persistence.EntityManager;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static java.util.Arrays.asList;
 import static mover.backend.web.rest.TestUtil.sameInstant;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -68,6 +76,15 @@ public class EmployeeResourceIntTest {
     @Autowired
     private LeadRepository leadRepository;
 
+    @Autowired
+    private EmployeeAvailabilityIndex employeeAvailabilityIndex;
+
+    @Autowired
+    private EmployeeAssignmentService employeeAssignmentService;
+
+    @Autowired
+    private PersonSearchIndex personSearchIndex;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -84,7 +101,8 @@ public class EmployeeResourceIntTest {
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        EmployeeResource employeeResource = new EmployeeResource(employeeRepository, leadRepository);
+        EmployeeResource employeeResource = new EmployeeResource(employeeRepository, leadRepository, employeeAvailabilityIndex,
+                employeeAssignmentService, personSearchIndex);
         this.restEmployeeMockMvc = MockMvcBuilders.standaloneSetup(employeeResource)
                 .setControllerAdvice(exceptionTranslator)
                 .setMessageConverters(jacksonMessageConverter).build();
@@ -164,6 +182,76 @@ public class EmployeeResourceIntTest {
                 .andExpect(jsonPath("$.[*].phone").value(hasItem(DEFAULT_PHONE)));
     }
 
+    @Test
+    @Transactional
+    public void queryEmployeesByKeyset() throws Exception {
+        // Initialize the database
+        Employee next = (Employee) new Employee()
+                .setFirstName(UPDATED_FIRST_NAME)
+                .setLastName(UPDATED_LAST_NAME)
+                .setPhone(UPDATED_PHONE)
+                .setEmail(UPDATED_EMAIL);
+        saveAndFlush(employee);
+        saveAndFlush(next);
+
+        // Get the first page
+        restEmployeeMockMvc.perform(get("/api/employees")
+                .param("afterId", String.valueOf(employee.getId() - 1))
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-moverApp-next-cursor", "afterId=" + employee.getId()))
+                .andExpect(jsonPath("$.[*].id").value(contains(employee.getId().intValue())));
+
+        // Get the next page from the cursor
+        restEmployeeMockMvc.perform(get("/api/employees")
+                .param("afterId", employee.getId().toString())
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-moverApp-next-cursor"))
+                .andExpect(jsonPath("$.[*].id").value(contains(next.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    public void searchEmployees() throws Exception {
+        // Create the Employee with searchable names
+        employee.setFirstName("Quillon").setLastName("Marbury").setPhone("+333-444-5555");
+        restEmployeeMockMvc.perform(post("/api/employees")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(employee)))
+                .andExpect(status().isCreated());
+        Employee created = getLastEmployee();
+
+        // Search by word prefixes and by the digits of the phone
+        restEmployeeMockMvc.perform(get("/api/employees/search?q=quil marb"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(hasItem(created.getId().intValue())));
+        restEmployeeMockMvc.perform(get("/api/employees/search?q=3334445"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(hasItem(created.getId().intValue())));
+
+        // Update the employee, only the new name matches
+        em.detach(created);
+        created.setFirstName("Zephyrine");
+        restEmployeeMockMvc.perform(put("/api/employees")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(created)))
+                .andExpect(status().isOk());
+        restEmployeeMockMvc.perform(get("/api/employees/search?q=quil"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(not(hasItem(created.getId().intValue()))));
+        restEmployeeMockMvc.perform(get("/api/employees/search?q=zephyr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].id").value(created.getId().intValue()));
+
+        // Delete the employee, nothing matches
+        restEmployeeMockMvc.perform(delete("/api/employees/{id}", created.getId()))
+                .andExpect(status().isOk());
+        restEmployeeMockMvc.perform(get("/api/employees/search?q=zephyr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(not(hasItem(created.getId().intValue()))));
+    }
+
     @Test
     @Transactional
     public void createEmployee() throws Exception {
@@ -229,6 +317,8 @@ public class EmployeeResourceIntTest {
 
         // Update the employee
         Employee updatedEmployee = employeeRepository.findById(employee.getId()).get();
+        // Disconnect from session so that the updates on updatedEmployee are not directly saved in db
+        em.detach(updatedEmployee);
         updatedEmployee
                 .setFirstName(UPDATED_FIRST_NAME)
                 .setLastName(UPDATED_LAST_NAME)
@@ -333,6 +423,23 @@ public class EmployeeResourceIntTest {
         assertThat(getCount()).isEqualTo(databaseSizeBeforeDelete - 1);
     }
 
+    @Test
+    @Transactional
+    public void deleteAssignedEmployee() throws Exception {
+        // The seeded employee 1 is assigned to the seeded lead 1
+        Long versionBeforeDelete = leadRepository.findVersionById(1L).get();
+
+        // Delete the employee
+        restEmployeeMockMvc.perform(delete("/api/employees/{id}", 1L)
+                .accept(TestUtil.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk());
+
+        // Validate the assignment is deleted and the lead version incremented
+        assertThat(employeeRepository.existsById(1L)).isFalse();
+        assertThat(leadRepository.findEmployeesByLeadId(1L)).containsOnly((Employee) null);
+        assertThat(leadRepository.findVersionById(1L)).contains(versionBeforeDelete + 1);
+    }
+
     @Test
     @Transactional
     public void deleteNonExistingEmployee() throws Exception {
@@ -408,6 +515,130 @@ public class EmployeeResourceIntTest {
         assertThat(lead.getAssignedTos()).contains(employee);
     }
 
+    @Test
+    @Transactional
+    public void updateConnectionLeadsByEmployeeId() throws Exception {
+        // Initialize the database with back to back leads
+        saveAndFlush(employee);
+        List<Lead> schedule = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Lead next = new Lead()
+                    .setStart(LocalDateTime.ofInstant(Instant.ofEpochMilli(i * 100L), ZoneOffset.UTC))
+                    .setEnd(LocalDateTime.ofInstant(Instant.ofEpochMilli(i * 100L + 100L), ZoneOffset.UTC))
+                    .setType(Type.LOCAL)
+                    .setStatus(Status.PENDING)
+                    .setOrigin(new Address("Default origin", 0D, 0D))
+                    .setDestination(new Address("Default destination", 0D, 0D));
+            saveAndFlush(next);
+            schedule.add(next);
+        }
+
+        // Put the leads to the employee
+        restEmployeeMockMvc.perform(put("/api/employees/{id}/leads", employee.getId())
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(asList(schedule.get(0).getId(), schedule.get(1).getId(), Long.MAX_VALUE))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(2));
+
+        // Put them again with another lead, only the new one is assigned
+        restEmployeeMockMvc.perform(put("/api/employees/{id}/leads", employee.getId())
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(asList(schedule.get(1).getId(), schedule.get(2).getId()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(1));
+
+        // Validate connection between Employee and Leads
+        assertThat(employeeRepository.findById(employee.getId()).get().getLeads())
+                .extracting(Lead::getId).containsOnlyElementsOf(schedule.stream().map(Lead::getId).collect(Collectors.toList()))
+                .hasSize(3);
+        assertThat(leadRepository.findEmployeesByLeadId(schedule.get(2).getId()))
+                .extracting(Employee::getId).contains(employee.getId());
+    }
+
+    @Test
+    @Transactional
+    public void updateConnectionOverlappingLeadsByEmployeeId() throws Exception {
+        // Initialize the database, the leads overlap
+        saveAndFlush(employee);
+        leads.forEach(this::saveAndFlush);
+
+        // Put the first lead to the employee
+        restEmployeeMockMvc.perform(put("/api/employees/{employeeId}/leads/{leadId}", employee.getId(), leads.get(0).getId()))
+                .andExpect(status().isOk());
+
+        // Put the overlapping lead to the employee
+        restEmployeeMockMvc.perform(put("/api/employees/{employeeId}/leads/{leadId}", employee.getId(), leads.get(1).getId()))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_BOOKING_CONFLICT));
+
+        // Validate only the first lead is assigned
+        assertThat(employeeRepository.findById(employee.getId()).get().getLeads())
+                .extracting(Lead::getId).containsExactly(leads.get(0).getId());
+    }
+
+    @Test
+    @Transactional
+    public void updateConnectionLeadsByNonExistingEmployeeId() throws Exception {
+        // Put the leads to the employee
+        restEmployeeMockMvc.perform(put("/api/employees/{id}/leads", Long.MAX_VALUE)
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(asList(1L, 2L))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    public void findAvailableEmployees() throws Exception {
+        // Initialize the database
+        restEmployeeMockMvc.perform(post("/api/employees")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(employee)))
+                .andExpect(status().isCreated());
+        employee = getLastEmployee();
+        saveAndFlush(lead);
+
+        // The employee is free before the assignment
+        restEmployeeMockMvc.perform(get("/api/employees/available")
+                .param("from", "1970-01-01T00:00:00")
+                .param("to", "1970-01-01T00:00:00.050"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(hasItem(employee.getId().intValue())));
+
+        // Put the lead to the employee
+        restEmployeeMockMvc.perform(put("/api/employees/{employeeId}/leads/{leadId}", employee.getId(), lead.getId()))
+                .andExpect(status().isOk());
+
+        // Validate the employee is busy during the lead, and free when it ends
+        restEmployeeMockMvc.perform(get("/api/employees/available")
+                .param("from", "1970-01-01T00:00:00")
+                .param("to", "1970-01-01T00:00:00.050"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(not(hasItem(employee.getId().intValue()))));
+        restEmployeeMockMvc.perform(get("/api/employees/available")
+                .param("from", "1970-01-01T00:00:00.100")
+                .param("to", "1970-01-01T01:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(hasItem(employee.getId().intValue())));
+
+        // Unassign the lead, the employee is free again
+        restEmployeeMockMvc.perform(delete("/api/employees/{employeeId}/leads/{leadId}", employee.getId(), lead.getId()))
+                .andExpect(status().isOk());
+        restEmployeeMockMvc.perform(get("/api/employees/available")
+                .param("from", "1970-01-01T00:00:00")
+                .param("to", "1970-01-01T00:00:00.050"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(hasItem(employee.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    public void findAvailableEmployeesInInvalidWindow() throws Exception {
+        restEmployeeMockMvc.perform(get("/api/employees/available")
+                .param("from", "1970-01-01T01:00:00")
+                .param("to", "1970-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     public void updateConnectionNonExistingLeadByEmployeeId() throws Exception {
@@ -0,0 +1,313 @@
+package mover.backend.web.rest;
+
+import mover.backend.BackendApplication;
+import mover.backend.model.Address;
+import mover.backend.model.Customer;
+import mover.backend.model.Employee;
+import mover.backend.model.Estimate;
+import mover.backend.model.Inventory;
+import mover.backend.model.Lead;
+import mover.backend.model.enumeration.Category;
+import mover.backend.model.enumeration.Status;
+import mover.backend.model.enumeration.Type;
+import mover.backend.repository.LeadRepository;
+import mover.backend.service.EmployeeAssignmentService;
+import mover.backend.service.EmployeeAvailabilityIndex;
+import mover.backend.service.LeadDistanceService;
+import mover.backend.service.LeadSpatialIndex;
+import mover.backend.service.LeadStatistics;
+import mover.backend.web.rest.advice.ExceptionAdvice;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.validation.Validator;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Test class for the LeadBatchResource REST controller.
+ *
+ * @see LeadBatchResource
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BackendApplication.class)
+public class LeadBatchResourceIntTest {
+
+    private static final LocalDateTime DEFAULT_START = LocalDateTime.ofInstant(Instant.ofEpochMilli(0L), ZoneOffset.UTC);
+    private static final LocalDateTime DEFAULT_END = LocalDateTime.ofInstant(Instant.ofEpochMilli(100L), ZoneOffset.UTC);
+    private static final LocalDateTime UPDATED_END = LocalDateTime.ofInstant(Instant.ofEpochMilli(1000L), ZoneOffset.UTC);
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Autowired
+    private LeadSpatialIndex leadSpatialIndex;
+
+    @Autowired
+    private EmployeeAvailabilityIndex employeeAvailabilityIndex;
+
+    @Autowired
+    private EmployeeAssignmentService employeeAssignmentService;
+
+    @Autowired
+    private LeadDistanceService leadDistanceService;
+
+    @Autowired
+    private LeadStatistics leadStatistics;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    @Autowired
+    private ExceptionAdvice exceptionTranslator;
+
+    @Autowired
+    private EntityManager em;
+
+    private MockMvc restLeadBatchMockMvc;
+
+    @Before
+    public void setup() {
+        LeadBatchResource leadBatchResource = new LeadBatchResource(
+                leadRepository, leadSpatialIndex, employeeAvailabilityIndex, employeeAssignmentService, leadDistanceService, leadStatistics,
+                em, validator, transactionManager, 2);
+        this.restLeadBatchMockMvc = MockMvcBuilders.standaloneSetup(leadBatchResource)
+                .setControllerAdvice(exceptionTranslator)
+                .setMessageConverters(jacksonMessageConverter).build();
+    }
+
+    private Lead createEntity() {
+        return new Lead()
+                .setStart(DEFAULT_START)
+                .setEnd(DEFAULT_END)
+                .setType(Type.LOCAL)
+                .setStatus(Status.PENDING)
+                .setOrigin(new Address("Default origin", 0D, 0D))
+                .setDestination(new Address("Default destination", 0D, 0D));
+    }
+
+    public int getCount() {
+        return (int) leadRepository.count();
+    }
+
+    @Test
+    @Transactional
+    public void createLeads() throws Exception {
+        int databaseSizeBeforeCreate = getCount();
+
+        Lead existing = createEntity().setId(1L);
+        Lead invalid = createEntity().setEnd(DEFAULT_START);
+
+        // Create the leads, in chunks of two
+        restLeadBatchMockMvc.perform(post("/api/leads/batch")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(asList(
+                        createEntity(), existing, createEntity(), invalid, createEntity()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].outcome").value("CREATED"))
+                .andExpect(jsonPath("$.[0].id").value(notNullValue()))
+                .andExpect(jsonPath("$.[1].outcome").value("ID_EXISTS"))
+                .andExpect(jsonPath("$.[2].outcome").value("CREATED"))
+                .andExpect(jsonPath("$.[3].outcome").value("INVALID"))
+                .andExpect(jsonPath("$.[3].fieldErrors.[*].field").value(hasItem("start")))
+                .andExpect(jsonPath("$.[4].outcome").value("CREATED"));
+
+        // Validate the Leads in the database
+        assertThat(getCount()).isEqualTo(databaseSizeBeforeCreate + 3);
+    }
+
+    @Test
+    @Transactional
+    public void createLeadsWithoutTypeAndCoordinates() throws Exception {
+        int databaseSizeBeforeCreate = getCount();
+
+        Lead underivable = createEntity().setType(null)
+                .setOrigin(new Address("Default origin", null, null));
+
+        // Create the leads, the one without type and coordinates does not fail its chunk
+        restLeadBatchMockMvc.perform(post("/api/leads/batch")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(asList(createEntity(), underivable, createEntity()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].outcome").value("CREATED"))
+                .andExpect(jsonPath("$.[1].outcome").value("INVALID"))
+                .andExpect(jsonPath("$.[1].fieldErrors.[*].field").value(hasItem("type")))
+                .andExpect(jsonPath("$.[2].outcome").value("CREATED"));
+
+        // Validate the Leads in the database
+        assertThat(getCount()).isEqualTo(databaseSizeBeforeCreate + 2);
+    }
+
+    @Test
+    @Transactional
+    public void updateLeads() throws Exception {
+        // Initialize the database
+        Lead lead = createEntity();
+        lead.getEstimates().add(new Estimate("Default estimate", 1, 100));
+        em.persist(lead);
+        em.flush();
+        em.detach(lead);
+
+        Lead updated = createEntity().setId(lead.getId()).setEnd(UPDATED_END).setStatus(Status.ASSIGNED);
+        Lead nonExisting = createEntity().setId(Long.MAX_VALUE);
+
+        // Update the leads
+        restLeadBatchMockMvc.perform(put("/api/leads/batch")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(asList(updated, nonExisting, createEntity()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$.[1].outcome").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.[2].outcome").value("NOT_FOUND"));
+
+        // Validate the Lead in the database, keeping its estimates
+        Lead testLead = leadRepository.findById(lead.getId()).get();
+        assertThat(testLead.getEnd()).isEqualTo(UPDATED_END);
+        assertThat(testLead.getStatus()).isEqualTo(Status.ASSIGNED);
+        assertThat(testLead.getEstimates()).hasSize(1);
+    }
+
+    @Test
+    @Transactional
+    public void updateLeadsWithStaleVersion() throws Exception {
+        // Initialize the database
+        Lead lead = createEntity();
+        Lead other = createEntity();
+        asList(lead, other).forEach(em::persist);
+        em.flush();
+        em.clear();
+
+        Lead stale = createEntity().setId(lead.getId()).setVersion(lead.getVersion() + 1).setStatus(Status.ASSIGNED);
+        Lead current = createEntity().setId(other.getId()).setVersion(other.getVersion()).setStatus(Status.ASSIGNED);
+
+        // Update the leads
+        restLeadBatchMockMvc.perform(put("/api/leads/batch")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(asList(stale, current))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].outcome").value("CONFLICT"))
+                .andExpect(jsonPath("$.[1].outcome").value("UPDATED"));
+
+        // Validate only the Lead with the current version is updated
+        assertThat(leadRepository.findById(lead.getId()).get().getStatus()).isEqualTo(Status.PENDING);
+        assertThat(leadRepository.findById(other.getId()).get().getStatus()).isEqualTo(Status.ASSIGNED);
+    }
+
+    @Test
+    @Transactional
+    public void updateLeadsOverlappingLeadOfEmployee() throws Exception {
+        // Initialize the database, the leads follow each other
+        Lead lead = createEntity();
+        Lead next = createEntity().setStart(DEFAULT_END).setEnd(UPDATED_END);
+        Employee employee = (Employee) new Employee().setFirstName("First name").setLastName("Last name")
+                .setEmail("employee@mail.com").setPhone("+111-111-1111");
+        asList(lead, next, employee).forEach(em::persist);
+        em.flush();
+        employeeAssignmentService.assign(employee.getId(), asList(lead.getId(), next.getId()));
+        em.clear();
+
+        // Move the lead onto the next one, and update the next one in place
+        restLeadBatchMockMvc.perform(put("/api/leads/batch")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(asList(
+                        createEntity().setId(lead.getId()).setEnd(UPDATED_END),
+                        createEntity().setId(next.getId()).setStart(DEFAULT_END).setEnd(UPDATED_END).setStatus(Status.ASSIGNED)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].outcome").value("CONFLICT"))
+                .andExpect(jsonPath("$.[1].outcome").value("UPDATED"));
+
+        // Validate only the next Lead is updated
+        assertThat(leadRepository.findById(lead.getId()).get().getEnd()).isEqualTo(DEFAULT_END);
+        assertThat(leadRepository.findById(next.getId()).get().getStatus()).isEqualTo(Status.ASSIGNED);
+    }
+
+    @Test
+    @Transactional
+    public void deleteLeads() throws Exception {
+        // Initialize the database
+        Lead lead = createEntity().setCustomer(em.find(Customer.class, 1L));
+        lead.getEstimates().add(new Estimate("Default estimate", 1, 100));
+        lead.getInventories().add(new Inventory(Category.ANY, "Default inventory", 1, 1, 1));
+        lead.getAssignedTos().add(em.find(Employee.class, 1L));
+        em.persist(lead);
+        Lead other = createEntity();
+        em.persist(other);
+        em.flush();
+        em.clear();
+
+        int databaseSizeBeforeDelete = getCount();
+
+        // Delete the leads
+        restLeadBatchMockMvc.perform(delete("/api/leads")
+                .param("ids", lead.getId().toString(), other.getId().toString(), String.valueOf(Long.MAX_VALUE)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(2));
+
+        // Validate the Leads and their rows are deleted
+        assertThat(getCount()).isEqualTo(databaseSizeBeforeDelete - 2);
+        assertThat(leadRepository.findEstimatesByLeadId(lead.getId())).isEmpty();
+        assertThat(em.find(Employee.class, 1L).getLeads()).extracting(Lead::getId).doesNotContain(lead.getId());
+        assertThat(em.find(Customer.class, 1L).getLeads()).extracting(Lead::getId).doesNotContain(lead.getId());
+    }
+
+    @Test
+    @Transactional
+    public void deleteLeadsByFilter() throws Exception {
+        // Initialize the database
+        Lead closed = createEntity().setStatus(Status.CLOSED);
+        Lead recent = createEntity().setStatus(Status.CLOSED)
+                .setStart(LocalDateTime.now())
+                .setEnd(LocalDateTime.now().plusDays(1));
+        Lead pending = createEntity();
+        asList(closed, recent, pending).forEach(em::persist);
+        em.flush();
+        em.clear();
+
+        // Delete the closed leads which ended more than 30 days ago
+        restLeadBatchMockMvc.perform(delete("/api/leads")
+                .param("status", Status.CLOSED.toString())
+                .param("olderThanDays", "30"))
+                .andExpect(status().isOk());
+
+        // Validate only the old closed Lead is deleted
+        assertThat(leadRepository.existsById(closed.getId())).isFalse();
+        assertThat(leadRepository.existsById(recent.getId())).isTrue();
+        assertThat(leadRepository.existsById(pending.getId())).isTrue();
+    }
+
+    @Test
+    @Transactional
+    public void deleteLeadsByNegativeDays() throws Exception {
+        restLeadBatchMockMvc.perform(delete("/api/leads")
+                .param("status", Status.CLOSED.toString())
+                .param("olderThanDays", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+}
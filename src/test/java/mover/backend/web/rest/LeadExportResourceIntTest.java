@@ -0,0 +1,175 @@
+package mover.backend.web.rest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mover.backend.BackendApplication;
+import mover.backend.model.*;
+import mover.backend.model.enumeration.Category;
+import mover.backend.model.enumeration.Status;
+import mover.backend.model.enumeration.Type;
+import mover.backend.repository.LeadRepository;
+import mover.backend.web.rest.advice.ExceptionAdvice;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StreamUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for the LeadExportResource REST controller.
+ *
+ * @see LeadExportResource
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BackendApplication.class)
+public class LeadExportResourceIntTest {
+
+    private static final Estimate DEFAULT_ESTIMATE = new Estimate("Default estimate", 1, 100);
+    private static final Inventory DEFAULT_INVENTORY = new Inventory(Category.BED, "Default inventory", 1, 10, 100);
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ExceptionAdvice exceptionTranslator;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private MockMvc restLeadExportMockMvc;
+
+    private Lead lead;
+
+    @Before
+    public void setup() {
+        LeadExportResource leadExportResource = new LeadExportResource(leadRepository, em, objectMapper);
+        this.restLeadExportMockMvc = MockMvcBuilders.standaloneSetup(leadExportResource)
+                .setControllerAdvice(exceptionTranslator).build();
+    }
+
+    @Before
+    public void initTest() {
+        lead = new Lead()
+                .setStart(LocalDateTime.ofInstant(Instant.ofEpochMilli(0L), ZoneOffset.UTC))
+                .setEnd(LocalDateTime.ofInstant(Instant.ofEpochMilli(100L), ZoneOffset.UTC))
+                .setType(Type.LOCAL)
+                .setStatus(Status.PENDING)
+                .setOrigin(new Address("Default origin", 0D, 0D))
+                .setDestination(new Address("Default destination", 0D, 0D));
+        lead.getEstimates().add(DEFAULT_ESTIMATE);
+        lead.getInventories().add(DEFAULT_INVENTORY);
+    }
+
+    public void saveAndFlush(Object o) {
+        em.persist(o);
+        em.flush();
+    }
+
+    @Test
+    @Transactional
+    public void exportLeads() throws Exception {
+        // Initialize the database
+        saveAndFlush(lead);
+
+        // Export all the leads
+        String body = restLeadExportMockMvc.perform(get("/api/leads/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(LeadExportResource.APPLICATION_NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+
+        // Validate one lead per line
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(getCount());
+        JsonNode exported = objectMapper.readTree(lines[lines.length - 1]);
+        assertThat(exported.get("id").asLong()).isEqualTo(lead.getId());
+        assertThat(exported.get("status").asText()).isEqualTo(Status.PENDING.toString());
+        assertThat(exported.get("estimates").get(0).get("name").asText()).isEqualTo(DEFAULT_ESTIMATE.getName());
+        assertThat(exported.get("inventories").get(0).get("name").asText()).isEqualTo(DEFAULT_INVENTORY.getName());
+    }
+
+    @Test
+    @Transactional
+    public void exportLeadsWithBatchedAssociations() throws Exception {
+        // Initialize the database with leads of a customer
+        Customer customer = (Customer) new Customer().setFirstName("First name").setLastName("Last name")
+                .setEmail("customer@mail.com").setPhone("+111-111-1111");
+        saveAndFlush(customer);
+        for (int i = 0; i < 50; i++) {
+            Lead customerLead = new Lead()
+                    .setStart(lead.getStart()).setEnd(lead.getEnd())
+                    .setType(Type.LOCAL).setStatus(Status.PENDING)
+                    .setOrigin(lead.getOrigin()).setDestination(lead.getDestination())
+                    .setCustomer(customer);
+            customerLead.getEstimates().add(DEFAULT_ESTIMATE);
+            customerLead.getInventories().add(DEFAULT_INVENTORY);
+            em.persist(customerLead);
+        }
+        em.flush();
+        em.clear();
+        int count = getCount();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        long statementsBefore = statistics.getPrepareStatementCount();
+
+        // Export all the leads
+        String body = restLeadExportMockMvc.perform(get("/api/leads/export"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Validate the customers were joined and the collections batch fetched, not loaded per lead
+        assertThat(body.split("\n")).hasSize(count);
+        assertThat(objectMapper.readTree(body.split("\n")[count - 1]).get("customerId").asLong())
+                .isEqualTo(customer.getId());
+        int chunks = (count + 499) / 500;
+        assertThat(statistics.getPrepareStatementCount() - statementsBefore)
+                .isLessThanOrEqualTo(1 + 2 * (count / 100 + chunks));
+    }
+
+    @Test
+    @Transactional
+    public void exportLeadsGzip() throws Exception {
+        // Initialize the database
+        saveAndFlush(lead);
+
+        // Export all the leads compressed
+        byte[] body = restLeadExportMockMvc.perform(get("/api/leads/export").param("gzip", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Validate one lead per line
+        String lines = StreamUtils.copyToString(
+                new GZIPInputStream(new ByteArrayInputStream(body)), StandardCharsets.UTF_8);
+        assertThat(lines.split("\n")).hasSize(getCount());
+    }
+
+    private int getCount() {
+        return (int) leadRepository.count();
+    }
+}
@@ -6,14 +6,27 @@ import mover.backend.model.enumeration.Category;
 import mover.backend.model.enumeration.Status;
 import mover.backend.model.enumeration.Type;
 import mover.backend.repository.LeadRepository;
+import mover.backend.service.EmployeeAssignmentService;
+import mover.backend.service.EmployeeAvailabilityIndex;
+import mover.backend.service.LeadDistanceService;
+import mover.backend.service.LeadSpatialIndex;
+import mover.backend.service.LeadStatistics;
 import mover.backend.web.rest.advice.ExceptionAdvice;
 import mover.backend.web.rest.advice.ValidatorAdvice;
+import mover.backend.web.rest.errors.ErrorConstants;
+import mover.backend.web.rest.util.ResponseUtil;
+import mover.backend.web.rest.vm.EstimatesPatchVM;
+import mover.backend.web.rest.vm.InventoriesPatchVM;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.context.junit4.SpringRunner;
@@ -31,7 +44,11 @@ import java.util.List;
 import static java.util.Arrays.asList;
 import static mover.backend.web.rest.TestUtil.sameInstant;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -95,6 +112,21 @@ public class LeadResourceIntTest {
     @Autowired
     private LeadRepository leadRepository;
 
+    @Autowired
+    private LeadSpatialIndex leadSpatialIndex;
+
+    @Autowired
+    private EmployeeAvailabilityIndex employeeAvailabilityIndex;
+
+    @Autowired
+    private EmployeeAssignmentService employeeAssignmentService;
+
+    @Autowired
+    private LeadDistanceService leadDistanceService;
+
+    @Autowired
+    private LeadStatistics leadStatistics;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -114,10 +146,10 @@ public class LeadResourceIntTest {
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        LeadResource leadResource = new LeadResource(leadRepository);
+        LeadResource leadResource = new LeadResource(leadRepository, leadSpatialIndex, employeeAvailabilityIndex,
+                employeeAssignmentService, leadDistanceService, leadStatistics);
         this.restLeadMockMvc = MockMvcBuilders.standaloneSetup(leadResource)
-                .setControllerAdvice(exceptionTranslator)
-                .setControllerAdvice(validatorTranslator)
+                .setControllerAdvice(exceptionTranslator, validatorTranslator)
                 .setMessageConverters(jacksonMessageConverter).build();
     }
 
@@ -191,6 +223,226 @@ public class LeadResourceIntTest {
                 .andExpect(jsonPath("$.[*].destination.address").value(hasItem(DEFAULT_DESTINATION.getAddress())));
     }
 
+    @Test
+    @Transactional
+    public void queryLeadsByFilter() throws Exception {
+        // Initialize the database
+        saveAndFlush(lead);
+
+        // Get the leads matching the filter
+        restLeadMockMvc.perform(get("/api/leads")
+                .param("status", DEFAULT_STATUS.toString())
+                .param("type", DEFAULT_TYPE.toString())
+                .param("from", DEFAULT_START.toString())
+                .param("to", DEFAULT_END.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(contains(lead.getId().intValue())));
+
+        // Get the leads not matching the filter
+        restLeadMockMvc.perform(get("/api/leads")
+                .param("status", UPDATED_STATUS.toString())
+                .param("from", DEFAULT_START.toString())
+                .param("to", DEFAULT_END.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    @Transactional
+    public void queryLeadsByKeyset() throws Exception {
+        // Initialize the database
+        Lead second = new Lead()
+                .setStart(UPDATED_START)
+                .setEnd(UPDATED_END)
+                .setType(DEFAULT_TYPE)
+                .setStatus(DEFAULT_STATUS)
+                .setOrigin(DEFAULT_ORIGIN)
+                .setDestination(DEFAULT_DESTINATION);
+        saveAndFlush(lead);
+        saveAndFlush(second);
+
+        // Get the first page, sorted by start
+        restLeadMockMvc.perform(get("/api/leads")
+                .param("status", DEFAULT_STATUS.toString())
+                .param("sort", "start")
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-moverApp-next-cursor",
+                        "afterStart=" + DEFAULT_START + "&afterId=" + lead.getId()))
+                .andExpect(jsonPath("$.[*].id").value(contains(lead.getId().intValue())));
+
+        // Get the next page from the cursor
+        restLeadMockMvc.perform(get("/api/leads")
+                .param("status", DEFAULT_STATUS.toString())
+                .param("sort", "start")
+                .param("size", "1")
+                .param("afterStart", DEFAULT_START.toString())
+                .param("afterId", lead.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-moverApp-next-cursor"))
+                .andExpect(jsonPath("$.[*].id").value(contains(second.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    public void findLeadsNear() throws Exception {
+        // Initialize the database and the index
+        Lead far = new Lead()
+                .setStart(DEFAULT_START)
+                .setEnd(DEFAULT_END)
+                .setType(DEFAULT_TYPE)
+                .setStatus(DEFAULT_STATUS)
+                .setOrigin(new Address("Far origin", 30.60, 50.50))
+                .setDestination(DEFAULT_DESTINATION);
+        lead.setOrigin(new Address("Near origin", 30.53, 50.45));
+        saveAndFlush(lead);
+        saveAndFlush(far);
+        leadSpatialIndex.put(lead);
+        leadSpatialIndex.put(far);
+
+        // Get the leads near the point, nearest first
+        restLeadMockMvc.perform(get("/api/leads/near")
+                .param("lat", "50.45")
+                .param("lon", "30.52")
+                .param("radiusKm", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(contains(lead.getId().intValue(), far.getId().intValue())));
+
+        // Get the leads within the radius only
+        restLeadMockMvc.perform(get("/api/leads/near")
+                .param("lat", "50.45")
+                .param("lon", "30.52")
+                .param("radiusKm", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(contains(lead.getId().intValue())));
+
+        // Get the leads within the bounding box
+        restLeadMockMvc.perform(get("/api/leads/within")
+                .param("minLat", "50.48")
+                .param("minLon", "30.55")
+                .param("maxLat", "50.52")
+                .param("maxLon", "30.65"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(contains(far.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    public void findLeadsCalendar() throws Exception {
+        // Initialize the database with a lead on one day, one over midnight and one before the window
+        LocalDateTime day = LocalDateTime.of(2040, 3, 2, 0, 0);
+        lead.setStart(day.plusHours(10)).setEnd(day.plusHours(12));
+        Lead overnight = new Lead()
+                .setStart(day.plusHours(22))
+                .setEnd(day.plusHours(26))
+                .setType(DEFAULT_TYPE)
+                .setStatus(UPDATED_STATUS)
+                .setOrigin(DEFAULT_ORIGIN)
+                .setDestination(DEFAULT_DESTINATION);
+        Lead before = new Lead()
+                .setStart(day.minusHours(2))
+                .setEnd(day)
+                .setType(DEFAULT_TYPE)
+                .setStatus(DEFAULT_STATUS)
+                .setOrigin(DEFAULT_ORIGIN)
+                .setDestination(DEFAULT_DESTINATION);
+        saveAndFlush(lead);
+        saveAndFlush(overnight);
+        saveAndFlush(before);
+
+        // Get the calendar of the week, the lead ending when it starts is not in it
+        restLeadMockMvc.perform(get("/api/leads/calendar")
+                .param("from", day.toString())
+                .param("to", day.plusDays(7).toString()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+                .andExpect(jsonPath("$.[*].date").value(contains("2040-03-02", "2040-03-03")))
+                .andExpect(jsonPath("$.[0].leads.[*].id")
+                        .value(contains(lead.getId().intValue(), overnight.getId().intValue())))
+                .andExpect(jsonPath("$.[0].leads.[1].status").value(UPDATED_STATUS.toString()))
+                .andExpect(jsonPath("$.[0].leads.[1].type").value(DEFAULT_TYPE.toString()))
+                .andExpect(jsonPath("$.[1].leads.[*].id").value(contains(overnight.getId().intValue())))
+                .andExpect(jsonPath("$.[1].leads.[0].origin").doesNotExist());
+
+        // Get the calendar of the first day only, the lead over midnight is clipped to it
+        restLeadMockMvc.perform(get("/api/leads/calendar")
+                .param("from", day.toString())
+                .param("to", day.plusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].date").value(contains("2040-03-02")));
+    }
+
+    @Test
+    @Transactional
+    public void findLeadStats() throws Exception {
+        long pending = leadStatistics.count(DEFAULT_STATUS);
+        long assigned = leadStatistics.count(UPDATED_STATUS);
+        long local = leadStatistics.count(DEFAULT_TYPE);
+
+        // Create the Lead, it is counted by its status and type
+        restLeadMockMvc.perform(post("/api/leads")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(lead)))
+                .andExpect(status().isCreated());
+        restLeadMockMvc.perform(get("/api/leads/stats"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+                .andExpect(jsonPath("$.statuses." + DEFAULT_STATUS).value((int) pending + 1))
+                .andExpect(jsonPath("$.types." + DEFAULT_TYPE).value((int) local + 1));
+
+        // Update the status, the Lead moves to the counter of the new status
+        Lead updatedLead = getLastLead();
+        em.detach(updatedLead);
+        updatedLead.setStatus(UPDATED_STATUS);
+        restLeadMockMvc.perform(put("/api/leads")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(updatedLead)))
+                .andExpect(status().isOk());
+        restLeadMockMvc.perform(get("/api/leads/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.statuses." + DEFAULT_STATUS).value((int) pending))
+                .andExpect(jsonPath("$.statuses." + UPDATED_STATUS).value((int) assigned + 1));
+
+        // Delete the Lead, it is not counted anymore
+        restLeadMockMvc.perform(delete("/api/leads/{id}", updatedLead.getId()))
+                .andExpect(status().isOk());
+        assertThat(leadStatistics.count(UPDATED_STATUS)).isEqualTo(assigned);
+        assertThat(leadStatistics.count(DEFAULT_TYPE)).isEqualTo(local);
+    }
+
+    @Test
+    @Transactional
+    public void reconcileLeadStats() throws Exception {
+        // Reconcile the counts left by the leads of rolled back tests
+        leadStatistics.reconcile();
+        long pending = leadStatistics.count(DEFAULT_STATUS);
+
+        // Initialize the database around the REST resource, the Lead is counted after reconciling
+        saveAndFlush(lead);
+        assertThat(leadStatistics.count(DEFAULT_STATUS)).isEqualTo(pending);
+        leadStatistics.reconcile();
+        assertThat(leadStatistics.count(DEFAULT_STATUS)).isEqualTo(pending + 1);
+
+        // Delete the Lead around the REST resource, it is not counted after reconciling
+        em.remove(lead);
+        em.flush();
+        leadStatistics.reconcile();
+        assertThat(leadStatistics.count(DEFAULT_STATUS)).isEqualTo(pending);
+    }
+
+    @Test
+    @Transactional
+    public void findLeadsCalendarInInvalidWindow() throws Exception {
+        restLeadMockMvc.perform(get("/api/leads/calendar")
+                .param("from", "2040-03-02T00:00:00")
+                .param("to", "2040-03-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+        restLeadMockMvc.perform(get("/api/leads/calendar")
+                .param("from", "2040-03-01T00:00:00")
+                .param("to", "2041-03-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     public void createLead() throws Exception {
@@ -211,6 +463,55 @@ public class LeadResourceIntTest {
         assertThat(testLead.getStatus()).isEqualTo(DEFAULT_STATUS);
         assertThat(testLead.getOrigin()).isEqualTo(DEFAULT_ORIGIN);
         assertThat(testLead.getDestination()).isEqualTo(DEFAULT_DESTINATION);
+        assertThat(testLead.getDistanceKm()).isZero();
+    }
+
+    @Test
+    @Transactional
+    public void createLeadWithoutType() throws Exception {
+        // Create the Lead from Kyiv to Lviv, which is about 470 km
+        lead.setType(null)
+                .setOrigin(new Address("Kyiv", 30.5234, 50.4501))
+                .setDestination(new Address("Lviv", 24.0297, 49.8397));
+        restLeadMockMvc.perform(post("/api/leads")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(lead)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.type").value(Type.DISTANCE.toString()));
+
+        // Validate the distance and the type derived from it in the database
+        Lead testLead = getLastLead();
+        assertThat(testLead.getDistanceKm()).isBetween(460D, 480D);
+        assertThat(testLead.getType()).isEqualTo(Type.DISTANCE);
+
+        // Get the lead by its distance
+        restLeadMockMvc.perform(get("/api/leads")
+                .param("minDistanceKm", "400")
+                .param("maxDistanceKm", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(hasItem(testLead.getId().intValue())));
+        restLeadMockMvc.perform(get("/api/leads")
+                .param("maxDistanceKm", "400"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(not(hasItem(testLead.getId().intValue()))));
+    }
+
+    @Test
+    @Transactional
+    public void createLeadWithoutTypeAndCoordinates() throws Exception {
+        int databaseSizeBeforeCreate = getCount();
+
+        // The type cannot be derived without the coordinates, so this API call must fail
+        lead.setType(null)
+                .setOrigin(new Address("Kyiv", null, null))
+                .setDestination(new Address("Lviv", 24.0297, 49.8397));
+        restLeadMockMvc.perform(post("/api/leads")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(lead)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fieldErrors.[*].field").value(hasItem("type")));
+
+        assertThat(getCount()).isEqualTo(databaseSizeBeforeCreate);
     }
 
     @Test
@@ -259,6 +560,8 @@ public class LeadResourceIntTest {
 
         // Update the lead
         Lead updatedLead = leadRepository.findById(lead.getId()).get();
+        // Disconnect from session so that the updates on updatedLead are not directly saved in db
+        em.detach(updatedLead);
         updatedLead
                 .setType(UPDATED_TYPE)
                 .setStart(UPDATED_START)
@@ -283,6 +586,88 @@ public class LeadResourceIntTest {
         assertThat(testLead.getDestination()).isEqualTo(UPDATED_DESTINATION);
     }
 
+    @Test
+    @Transactional
+    public void updateLeadIfMatch() throws Exception {
+        // Initialize the database
+        saveAndFlush(lead);
+        em.detach(lead);
+        String eTag = ResponseUtil.eTag("lead", lead.getId(), lead.getVersion());
+
+        lead.setStatus(UPDATED_STATUS);
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            // Update the lead with the ETag
+            restLeadMockMvc.perform(put("/api/leads")
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                    .content(TestUtil.convertObjectToJsonBytes(lead)))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, ResponseUtil.eTag("lead", lead.getId(), lead.getVersion() + 1)));
+
+            // Validate the update is a single statement
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+        assertThat(getLastLead().getStatus()).isEqualTo(UPDATED_STATUS);
+
+        // Update the lead again with the stale ETag
+        restLeadMockMvc.perform(put("/api/leads")
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(lead)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_CONCURRENCY_FAILURE));
+    }
+
+    @Test
+    @Transactional
+    public void updateLeadKeepsCollections() throws Exception {
+        // Initialize the database
+        saveAndFlush(lead);
+        em.detach(lead);
+
+        // Update the lead, whose body never carries the collections
+        lead.setType(UPDATED_TYPE);
+        restLeadMockMvc.perform(put("/api/leads")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(lead)))
+                .andExpect(status().isOk());
+
+        // Validate the estimates are kept
+        restLeadMockMvc.perform(get("/api/leads/{id}/estimates", lead.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(DEFAULT_ESTIMATES.size()));
+    }
+
+    @Test
+    @Transactional
+    public void updateLeadKeepsCachedCustomerLeads() throws Exception {
+        // Initialize the database
+        saveAndFlush(lead);
+        em.detach(lead);
+
+        // Load the leads of a seeded customer into the cache
+        Cache cache = em.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        String role = Customer.class.getName() + ".leads";
+        assertThat(em.find(Customer.class, 1L).getLeads()).isNotEmpty();
+        assertThat(cache.containsCollection(role, 1L)).isTrue();
+
+        // Update the lead
+        lead.setStatus(UPDATED_STATUS);
+        restLeadMockMvc.perform(put("/api/leads")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(lead)))
+                .andExpect(status().isOk());
+
+        // Validate the leads of the other customer are still cached
+        assertThat(cache.containsCollection(role, 1L)).isTrue();
+    }
+
     @Test
     @Transactional
     public void updateNotValidLead() throws Exception {
@@ -310,6 +695,42 @@ public class LeadResourceIntTest {
         assertThat(testLead.getEnd()).isEqualTo(DEFAULT_END);
     }
 
+    @Test
+    @Transactional
+    public void updateLeadOverlappingLeadOfEmployee() throws Exception {
+        // Initialize the database, the leads follow each other
+        Lead next = new Lead()
+                .setStart(DEFAULT_END)
+                .setEnd(UPDATED_END)
+                .setType(DEFAULT_TYPE)
+                .setStatus(DEFAULT_STATUS)
+                .setOrigin(DEFAULT_ORIGIN)
+                .setDestination(DEFAULT_DESTINATION);
+        saveAndFlush(lead);
+        saveAndFlush(next);
+        saveAndFlush(employees.get(0));
+        employeeAssignmentService.assign(employees.get(0).getId(), asList(lead.getId(), next.getId()));
+        em.detach(lead);
+
+        // Move the lead onto the next one
+        lead
+                .setStart(UPDATED_START)
+                .setEnd(UPDATED_END);
+
+        restLeadMockMvc.perform(put("/api/leads")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(lead)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_BOOKING_CONFLICT));
+
+        // Validate the Lead in the database and the schedule of the employee
+        Lead testLead = leadRepository.findById(lead.getId()).get();
+        assertThat(testLead.getStart()).isEqualTo(DEFAULT_START);
+        assertThat(testLead.getEnd()).isEqualTo(DEFAULT_END);
+        assertThat(employeeAvailabilityIndex.findConflicts(employees.get(0).getId(), DEFAULT_START, UPDATED_START))
+                .containsExactly(lead.getId());
+    }
+
     @Test
     @Transactional
     public void updateNonExistingLead() throws Exception {
@@ -346,6 +767,133 @@ public class LeadResourceIntTest {
                 .andExpect(jsonPath("$.destination.address").value(DEFAULT_DESTINATION.getAddress()));
     }
 
+    @Test
+    @Transactional
+    public void findLeadExpanded() throws Exception {
+        // Initialize the database
+        saveAndFlush(customer);
+        employees.forEach(this::saveAndFlush);
+        lead.setCustomer(customer);
+        lead.getAssignedTos().addAll(employees);
+        saveAndFlush(lead);
+
+        // Get the lead with the associations inlined
+        restLeadMockMvc.perform(get("/api/leads/{id}", lead.getId())
+                .param("expand", "estimates,inventories,customer,employees"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(lead.getId().intValue()))
+                .andExpect(jsonPath("$.estimates.[*].name").value(hasItem(DEFAULT_ESTIMATES.get(0).getName())))
+                .andExpect(jsonPath("$.inventories.[*].name").value(hasItem(DEFAULT_INVENTORIES.get(0).getName())))
+                .andExpect(jsonPath("$.customer.email").value(customer.getEmail()))
+                .andExpect(jsonPath("$.employees.[*].email").value(hasItem(employees.get(0).getEmail())));
+
+        // Get the lead without associations
+        restLeadMockMvc.perform(get("/api/leads/{id}", lead.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estimates").doesNotExist())
+                .andExpect(jsonPath("$.customer").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    public void findLeadWithUnknownExpansion() throws Exception {
+        // Initialize the database
+        saveAndFlush(lead);
+
+        // Get the lead with an unknown association
+        restLeadMockMvc.perform(get("/api/leads/{id}", lead.getId())
+                .param("expand", "unknown"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void findLeadNotModified() throws Exception {
+        // Initialize the database
+        saveAndFlush(lead);
+        em.clear();
+
+        // Get the lead and its ETag
+        String eTag = restLeadMockMvc.perform(get("/api/leads/{id}", lead.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            // Get the lead again with the ETag
+            restLeadMockMvc.perform(get("/api/leads/{id}", lead.getId())
+                    .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                    .andExpect(content().string(""));
+
+            // Validate the lead is not loaded
+            assertThat(statistics.getEntityLoadCount()).isZero();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        // Change the estimates of the lead
+        EstimatesPatchVM patch = new EstimatesPatchVM()
+                .setRemove(new HashSet<>(asList(DEFAULT_ESTIMATES.get(0).getName())));
+        restLeadMockMvc.perform(patch("/api/leads/{id}/estimates", lead.getId())
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(patch)))
+                .andExpect(status().isOk());
+        em.flush();
+
+        // Validate the ETag no longer matches
+        restLeadMockMvc.perform(get("/api/leads/{id}/estimates", lead.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+
+    @Test
+    @Transactional
+    public void queryLeadsExpandedWithConstantStatements() throws Exception {
+        // Initialize the database
+        saveAndFlush(customer);
+        employees.forEach(this::saveAndFlush);
+        for (int i = 0; i < 10; i++) {
+            Lead next = new Lead()
+                    .setStart(DEFAULT_START)
+                    .setEnd(DEFAULT_END)
+                    .setType(DEFAULT_TYPE)
+                    .setStatus(DEFAULT_STATUS)
+                    .setOrigin(DEFAULT_ORIGIN)
+                    .setDestination(DEFAULT_DESTINATION)
+                    .setCustomer(customer);
+            next.getEstimates().addAll(DEFAULT_ESTIMATES);
+            next.getInventories().addAll(DEFAULT_INVENTORIES);
+            next.getAssignedTos().addAll(employees);
+            saveAndFlush(next);
+        }
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            // Get the page of leads with all associations inlined
+            restLeadMockMvc.perform(get("/api/leads")
+                    .param("status", DEFAULT_STATUS.toString())
+                    .param("expand", "estimates,inventories,customer,employees"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(10))
+                    .andExpect(jsonPath("$.[*].customer.email").value(hasItem(customer.getEmail())));
+
+            // Validate one statement for the page and one per association
+            assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(5);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
     @Test
     @Transactional
     public void findNonExistingLead() throws Exception {
@@ -411,6 +959,19 @@ public class LeadResourceIntTest {
                 .andExpect(jsonPath("$.[*].price").value(hasItem(DEFAULT_ESTIMATES.get(2).getPrice())));
     }
 
+    @Test
+    @Transactional
+    public void findEmptyEstimates() throws Exception {
+        // Initialize the database
+        lead.getEstimates().clear();
+        saveAndFlush(lead);
+
+        // Get the estimates of the lead
+        restLeadMockMvc.perform(get("/api/leads/{id}/estimates", lead.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
     @Test
     @Transactional
     public void findNonExistingEstimates() throws Exception {
@@ -488,6 +1049,69 @@ public class LeadResourceIntTest {
         assertThat(getCount()).isEqualTo(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    @Transactional
+    public void patchEstimates() throws Exception {
+        // Initialize the database
+        saveAndFlush(lead);
+        em.clear();
+
+        EstimatesPatchVM patch = new EstimatesPatchVM()
+                .setRemove(new HashSet<>(asList(DEFAULT_ESTIMATES.get(0).getName())))
+                .setUpdate(asList(new EstimatesPatchVM.Change(DEFAULT_ESTIMATES.get(1).getName(), 5, null)))
+                .setAdd(asList(UPDATED_ESTIMATES.get(0)));
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            // Patch the estimates of the lead
+            restLeadMockMvc.perform(patch("/api/leads/{id}/estimates", lead.getId())
+                    .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                    .content(TestUtil.convertObjectToJsonBytes(patch)))
+                    .andExpect(status().isOk());
+            em.flush();
+
+            // Validate the collection is updated row by row instead of recreated
+            assertThat(statistics.getCollectionRecreateCount()).isZero();
+            assertThat(statistics.getCollectionUpdateCount()).isEqualTo(1);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        // Validate the Estimates in the database
+        em.clear();
+        assertThat(getLastLead().getEstimates()).extracting(Estimate::getName, Estimate::getQuantity).containsExactlyInAnyOrder(
+                tuple(DEFAULT_ESTIMATES.get(1).getName(), 5),
+                tuple(DEFAULT_ESTIMATES.get(2).getName(), DEFAULT_ESTIMATES.get(2).getQuantity()),
+                tuple(UPDATED_ESTIMATES.get(0).getName(), UPDATED_ESTIMATES.get(0).getQuantity()));
+    }
+
+    @Test
+    @Transactional
+    public void patchNonExistingEstimate() throws Exception {
+        // Initialize the database
+        saveAndFlush(lead);
+        em.clear();
+
+        EstimatesPatchVM patch = new EstimatesPatchVM()
+                .setAdd(asList(UPDATED_ESTIMATES.get(0)))
+                .setRemove(new HashSet<>(asList(UPDATED_ESTIMATES.get(1).getName())));
+
+        // Patch with an unknown estimate fails
+        restLeadMockMvc.perform(patch("/api/leads/{id}/estimates", lead.getId())
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(patch)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_ESTIMATE_NOT_FOUND));
+
+        // Patch of a non existing Lead fails
+        restLeadMockMvc.perform(patch("/api/leads/{id}/estimates", Long.MAX_VALUE)
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(new EstimatesPatchVM())))
+                .andExpect(status().isNotFound());
+    }
+
     /* INVENTORIES */
 
     @Test
@@ -598,6 +1222,111 @@ public class LeadResourceIntTest {
         assertThat(getCount()).isEqualTo(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    @Transactional
+    public void findInventoryTotals() throws Exception {
+        // Initialize the database
+        saveAndFlush(lead);
+
+        // Get the inventory totals of the lead
+        restLeadMockMvc.perform(get("/api/leads/{id}/inventories/totals", lead.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.LIVING.items").value(2))
+                .andExpect(jsonPath("$.LIVING.weight").value(40))
+                .andExpect(jsonPath("$.LIVING.volume").value(400))
+                .andExpect(jsonPath("$.OFFICE.items").value(3))
+                .andExpect(jsonPath("$.OFFICE.weight").value(90))
+                .andExpect(jsonPath("$.OFFICE.volume").value(900));
+
+        // Get the inventory totals of a non existing lead
+        restLeadMockMvc.perform(get("/api/leads/{id}/inventories/totals", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    public void patchInventories() throws Exception {
+        // Initialize the database
+        saveAndFlush(lead);
+        em.clear();
+
+        InventoriesPatchVM patch = new InventoriesPatchVM()
+                .setRemove(new HashSet<>(asList(DEFAULT_INVENTORIES.get(0).getName())))
+                .setUpdate(asList(new InventoriesPatchVM.Change(DEFAULT_INVENTORIES.get(1).getName(), 4, null, null)))
+                .setAdd(asList(new Inventory(Category.OFFICE, "Updated inventory", 1, 5, 50)));
+
+        // Patch the inventories of the lead
+        restLeadMockMvc.perform(patch("/api/leads/{id}/inventories", lead.getId())
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(patch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.BED").doesNotExist())
+                .andExpect(jsonPath("$.LIVING.items").value(4))
+                .andExpect(jsonPath("$.LIVING.weight").value(80))
+                .andExpect(jsonPath("$.OFFICE.items").value(4))
+                .andExpect(jsonPath("$.OFFICE.volume").value(950));
+        em.flush();
+        em.clear();
+
+        // Validate the Inventories and their totals in the database
+        Lead testLead = getLastLead();
+        assertThat(testLead.getInventories()).extracting(Inventory::getName).containsExactlyInAnyOrder(
+                DEFAULT_INVENTORIES.get(1).getName(), DEFAULT_INVENTORIES.get(2).getName(), "Updated inventory");
+        assertThat(testLead.getInventoryTotals()).containsOnlyKeys(Category.LIVING, Category.OFFICE);
+        assertThat(testLead.getInventoryTotals().get(Category.OFFICE)).isEqualTo(new InventoryTotal(4, 95, 950));
+    }
+
+    @Test
+    @Transactional
+    public void patchNotValidInventories() throws Exception {
+        // Initialize the database
+        saveAndFlush(lead);
+        em.clear();
+
+        InventoriesPatchVM patch = new InventoriesPatchVM()
+                .setAdd(asList(new Inventory(Category.OFFICE, "Negative inventory", -1, -5, -50)));
+
+        // Patch adding an inventory with negative quantity, weight and volume fails
+        restLeadMockMvc.perform(patch("/api/leads/{id}/inventories", lead.getId())
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(patch)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fieldErrors.[*].field").value(hasItems(
+                        "add[0].quantity", "add[0].weight", "add[0].volume")));
+
+        patch = new InventoriesPatchVM()
+                .setUpdate(asList(new InventoriesPatchVM.Change(DEFAULT_INVENTORIES.get(1).getName(), 0, -1, -1)));
+
+        // Patch changing an inventory to a zero quantity and negative weight and volume fails
+        restLeadMockMvc.perform(patch("/api/leads/{id}/inventories", lead.getId())
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(patch)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fieldErrors.[*].field").value(hasItems(
+                        "update[0].quantity", "update[0].weight", "update[0].volume")));
+
+        // Validate the Inventories in the database
+        assertThat(getLastLead().getInventories()).containsExactlyInAnyOrder(DEFAULT_INVENTORIES.toArray(new Inventory[0]));
+    }
+
+    @Test
+    @Transactional
+    public void patchExistingInventory() throws Exception {
+        // Initialize the database
+        saveAndFlush(lead);
+        em.clear();
+
+        InventoriesPatchVM patch = new InventoriesPatchVM()
+                .setAdd(asList(DEFAULT_INVENTORIES.get(0)));
+
+        // Patch adding an inventory with a used name fails
+        restLeadMockMvc.perform(patch("/api/leads/{id}/inventories", lead.getId())
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(patch)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_INVENTORY_EXISTS));
+    }
+
     /* ENTITIES */
 
     @Test
@@ -652,6 +1381,18 @@ public class LeadResourceIntTest {
                 .andExpect(jsonPath("$.[*].phone").value(hasItem(employees.get(1).getPhone())));
     }
 
+    @Test
+    @Transactional
+    public void findEmptyEmployeesByLeadId() throws Exception {
+        // Initialize the database
+        saveAndFlush(lead);
+
+        // Get the employees of the lead
+        restLeadMockMvc.perform(get("/api/leads/{id}/employees", lead.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
     @Test
     @Transactional
     public void findNonExistingEmployeesByLeadId() throws Exception {
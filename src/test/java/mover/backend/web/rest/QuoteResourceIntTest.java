@@ -0,0 +1,152 @@
+package mover.backend.web.rest;
+
+import mover.backend.BackendApplication;
+import mover.backend.model.Address;
+import mover.backend.model.Estimate;
+import mover.backend.model.Inventory;
+import mover.backend.model.Lead;
+import mover.backend.model.enumeration.Category;
+import mover.backend.model.enumeration.Status;
+import mover.backend.model.enumeration.Type;
+import mover.backend.service.QuoteService;
+import mover.backend.web.rest.advice.ExceptionAdvice;
+import mover.backend.web.rest.errors.ErrorConstants;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for the QuoteResource REST controller.
+ *
+ * @see QuoteResource
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BackendApplication.class)
+public class QuoteResourceIntTest {
+
+    @Autowired
+    private QuoteService quoteService;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    @Autowired
+    private ExceptionAdvice exceptionTranslator;
+
+    @Autowired
+    private EntityManager em;
+
+    private MockMvc restQuoteMockMvc;
+
+    private Lead lead;
+
+    @Before
+    public void setup() {
+        QuoteResource quoteResource = new QuoteResource(quoteService);
+        this.restQuoteMockMvc = MockMvcBuilders.standaloneSetup(quoteResource)
+                .setControllerAdvice(exceptionTranslator)
+                .setMessageConverters(jacksonMessageConverter).build();
+    }
+
+    @Before
+    public void initTest() {
+        lead = new Lead()
+                .setStart(LocalDateTime.of(2030, 1, 1, 8, 0))
+                .setEnd(LocalDateTime.of(2030, 1, 1, 12, 0))
+                .setType(Type.LOCAL)
+                .setStatus(Status.PENDING)
+                .setOrigin(new Address("Quote origin", 0D, 0D))
+                .setDestination(new Address("Quote destination", 0D, 0D))
+                .setDistanceKm(10D);
+        lead.getEstimates().add(new Estimate("Big box", 2, 100));
+        lead.getEstimates().add(new Estimate("Packing tape", 1, 50));
+        lead.getInventories().add(new Inventory(Category.BED, "Bed", 2, 10, 20));
+    }
+
+    @Test
+    @Transactional
+    public void findQuote() throws Exception {
+        // Initialize the database
+        em.persist(lead);
+        em.flush();
+
+        // Quote the lead under the default tariff:
+        // estimates 2 * 100 + 50, weight 20 * 0.05, volume 40 * 0.02, distance 10 * 1.50
+        restQuoteMockMvc.perform(get("/api/leads/{id}/quote", lead.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+                .andExpect(jsonPath("$.leadId").value(lead.getId().intValue()))
+                .andExpect(jsonPath("$.tariff").value("standard"))
+                .andExpect(jsonPath("$.estimates").value(250.0))
+                .andExpect(jsonPath("$.weightCharge").value(1.0))
+                .andExpect(jsonPath("$.volumeCharge").value(0.8))
+                .andExpect(jsonPath("$.distanceCharge").value(15.0))
+                .andExpect(jsonPath("$.total").value(266.8));
+
+        // Change the estimates, the new version of the lead is quoted again
+        lead.getEstimates().add(new Estimate("Wardrobe box", 1, 30));
+        em.flush();
+        restQuoteMockMvc.perform(get("/api/leads/{id}/quote", lead.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(lead.getVersion().intValue()))
+                .andExpect(jsonPath("$.total").value(296.8));
+
+        // Quote the lead under another tariff: estimates 280, weight 20 * 0.08, volume 40 * 0.03, distance 10 * 2.00
+        restQuoteMockMvc.perform(get("/api/leads/{id}/quote", lead.getId())
+                .param("tariff", "peak"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tariff").value("peak"))
+                .andExpect(jsonPath("$.total").value(302.8));
+    }
+
+    @Test
+    @Transactional
+    public void findQuoteOfMinimum() throws Exception {
+        // Initialize the database with a lead without estimates and inventories
+        lead.getEstimates().clear();
+        lead.getInventories().clear();
+        lead.setDistanceKm(null);
+        em.persist(lead);
+        em.flush();
+
+        // The total is the minimum of the tariff
+        restQuoteMockMvc.perform(get("/api/leads/{id}/quote", lead.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.distanceCharge").value(0.0))
+                .andExpect(jsonPath("$.total").value(100.0));
+    }
+
+    @Test
+    @Transactional
+    public void findQuoteOfNonExistingLead() throws Exception {
+        restQuoteMockMvc.perform(get("/api/leads/{id}/quote", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    public void findQuoteUnderUnknownTariff() throws Exception {
+        restQuoteMockMvc.perform(get("/api/leads/{id}/quote", 1)
+                .param("tariff", "unknown"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_UNKNOWN_TARIFF));
+        restQuoteMockMvc.perform(post("/api/quotes/upcoming")
+                .param("tariff", "unknown"))
+                .andExpect(status().isBadRequest());
+    }
+}
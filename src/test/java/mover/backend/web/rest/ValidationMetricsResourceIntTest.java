@@ -0,0 +1,101 @@
+package mover.backend.web.rest;
+
+import mover.backend.BackendApplication;
+import mover.backend.annotation.Email;
+import mover.backend.model.Customer;
+import mover.backend.repository.CustomerRepository;
+import mover.backend.repository.LeadRepository;
+import mover.backend.service.PersonSearchIndex;
+import mover.backend.validator.EmailValidator;
+import mover.backend.validator.ValidationMetrics;
+import mover.backend.web.rest.advice.ExceptionAdvice;
+import mover.backend.web.rest.advice.ValidatorAdvice;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Test class for the ValidationMetricsResource REST controller.
+ *
+ * @see ValidationMetricsResource
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = BackendApplication.class)
+public class ValidationMetricsResourceIntTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Autowired
+    private PersonSearchIndex personSearchIndex;
+
+    @Autowired
+    private ValidationMetrics validationMetrics;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    @Autowired
+    private ExceptionAdvice exceptionTranslator;
+
+    @Autowired
+    private ValidatorAdvice validatorTranslator;
+
+    private MockMvc restCustomerMockMvc;
+
+    private MockMvc restValidationMetricsMockMvc;
+
+    @Before
+    public void setup() {
+        CustomerResource customerResource = new CustomerResource(customerRepository, leadRepository, personSearchIndex);
+        this.restCustomerMockMvc = MockMvcBuilders.standaloneSetup(customerResource)
+                .setControllerAdvice(exceptionTranslator, validatorTranslator)
+                .setMessageConverters(jacksonMessageConverter).build();
+        ValidationMetricsResource validationMetricsResource = new ValidationMetricsResource(validationMetrics);
+        this.restValidationMetricsMockMvc = MockMvcBuilders.standaloneSetup(validationMetricsResource)
+                .setMessageConverters(jacksonMessageConverter).build();
+    }
+
+    @Test
+    @Transactional
+    public void findValidationMetrics() throws Exception {
+        ValidationMetrics.Constraint email = validationMetrics.constraint(Email.class, EmailValidator.class);
+        long callsBefore = email.getCalls();
+        long failuresBefore = email.getFailures();
+
+        // Create a customer with a wrong email, which fails
+        Customer customer = (Customer) new Customer()
+                .setFirstName("First name").setLastName("Last name").setPhone("+111-111-1111")
+                .setEmail("WRONG EMAIL");
+        restCustomerMockMvc.perform(post("/api/customers")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(customer)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fieldErrors.[*].message").value(hasItem("Email")));
+
+        // The email constraint was timed by the shared validator
+        assertThat(email.getCalls()).isEqualTo(callsBefore + 1);
+        assertThat(email.getFailures()).isEqualTo(failuresBefore + 1);
+        restValidationMetricsMockMvc.perform(get("/api/validation/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].annotation").value(hasItem("Email")))
+                .andExpect(jsonPath("$.[*].validator").value(hasItem("EmailValidator")));
+    }
+}